@@ -0,0 +1,54 @@
+#!/usr/bin/env bash
+# ============================================================
+# Unpacks a fast-startup build and records an AppCDS archive for it
+#
+# CDS only archives classes loaded from plain jars on the class path, so
+# the Spring Boot fat jar is unpacked into lib/*.jar plus one app.jar for
+# the application classes (and the generated AOT code). A training run
+# then starts the context with -Dspring.context.exit=onRefresh — no
+# database needed — and dumps every class it loaded into app.jsa.
+#
+# Writes to OUT_DIR:
+#   app.jar, lib/     the class path
+#   java.args         -cp ... and the main class, for `java @java.args`
+#   app.jsa           the archive (valid only for this JDK + class path)
+#
+# Usage:
+#   mvn -Pfast-startup clean package -DskipTests
+#   ./cds-archive.sh target/equipment-management-1.0.0.jar target/fast
+#   java -XX:SharedArchiveFile=target/fast/app.jsa -Dspring.aot.enabled=true \
+#        -Dspring.profiles.active=fast-startup @target/fast/java.args
+# ============================================================
+set -euo pipefail
+
+FAT_JAR=$(cd "$(dirname "$1")" && pwd)/$(basename "$1")
+OUT_DIR=$(mkdir -p "$2" && cd "$2" && pwd)
+MAIN_CLASS=com.equipmgmt.EquipmentManagementApplication
+
+unpacked=$(mktemp -d)
+trap 'rm -rf "$unpacked"' EXIT
+
+(cd "$unpacked" && jar -xf "$FAT_JAR")
+rm -rf "$OUT_DIR/lib" "$OUT_DIR/app.jar" "$OUT_DIR/app.jsa"
+mv "$unpacked/BOOT-INF/lib" "$OUT_DIR/lib"
+jar -cf "$OUT_DIR/app.jar" -C "$unpacked/BOOT-INF/classes" .
+
+# The archive is rejected unless the class path matches exactly, so fix its order
+classpath="$OUT_DIR/app.jar"
+for lib in $(ls "$OUT_DIR/lib" | LC_ALL=C sort); do
+    classpath="$classpath:$OUT_DIR/lib/$lib"
+done
+printf -- '-cp %s\n%s\n' "$classpath" "$MAIN_CLASS" > "$OUT_DIR/java.args"
+
+# Training run: refresh the context without touching the database, then exit.
+# Hibernate 6.3 skips JDBC metadata with use_jdbc_metadata_defaults=false,
+# which requires the dialect to be named.
+java -XX:ArchiveClassesAtExit="$OUT_DIR/app.jsa" -Xlog:cds=error \
+     -Dspring.aot.enabled=true \
+     -Dspring.context.exit=onRefresh \
+     -Dspring.jpa.properties.hibernate.temp.use_jdbc_metadata_defaults=false \
+     -Dspring.jpa.database-platform=org.hibernate.dialect.PostgreSQLDialect \
+     -Dspring.jpa.show-sql=false \
+     @"$OUT_DIR/java.args"
+
+echo "CDS archive: $OUT_DIR/app.jsa ($(du -h "$OUT_DIR/app.jsa" | cut -f1))"
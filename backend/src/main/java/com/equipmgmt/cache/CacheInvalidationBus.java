@@ -0,0 +1,264 @@
+package com.equipmgmt.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * Cross-instance cache invalidation over PostgreSQL LISTEN/NOTIFY.
+ *
+ * Services call {@link #invalidate} / {@link #invalidatePrefix} inside their
+ * transaction. Nothing happens until the transaction commits; then:
+ * <ol>
+ *   <li>every local {@link InvalidationTarget} is invalidated synchronously,
+ *       so this instance reads its own writes; more than
+ *       {@code storm-threshold} keys are collapsed into their prefixes
+ *       first;</li>
+ *   <li>the batch is queued for a sender thread, which waits a few
+ *       milliseconds to coalesce bursts and then issues {@code pg_notify}.
+ *       Bursts are merged only up to {@code storm-threshold} keys, so a run
+ *       of small commits is never collapsed on the way out.</li>
+ * </ol>
+ * {@link PgInvalidationListener} applies the messages on the other instances.
+ * A rolled-back transaction publishes nothing.
+ */
+@Slf4j
+@Component
+public class CacheInvalidationBus implements SmartLifecycle {
+
+    private static final Pattern CHANNEL_NAME = Pattern.compile("[a-z_][a-z0-9_]{0,62}");
+
+    private final String  nodeId = UUID.randomUUID().toString().substring(0, 8);
+    private final BlockingQueue<InvalidationBatch> outbound = new LinkedBlockingQueue<>();
+
+    private final ObjectProvider<InvalidationTarget> targetProvider;
+    private final JdbcTemplate jdbcTemplate;
+
+    private final boolean enabled;
+    private final String  channel;
+    private final long    coalesceMs;
+    private final int     stormThreshold;
+
+    private final Counter published;
+    private final Counter publishFailures;
+    private final Counter collapsed;
+
+    private volatile List<InvalidationTarget> targets;
+    private volatile boolean running;
+    private Thread sender;
+
+    public CacheInvalidationBus(
+            ObjectProvider<InvalidationTarget> targetProvider,
+            JdbcTemplate jdbcTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${app.cache.invalidation.enabled:true}")                   boolean enabled,
+            @Value("${app.cache.invalidation.channel:equipmgmt_invalidation}") String  channel,
+            @Value("${app.cache.invalidation.coalesce-ms:5}")                  long    coalesceMs,
+            @Value("${app.cache.invalidation.storm-threshold:200}")            int     stormThreshold) {
+        if (!CHANNEL_NAME.matcher(channel).matches()) {
+            throw new IllegalArgumentException("Invalid invalidation channel name: " + channel);
+        }
+        this.targetProvider = targetProvider;
+        this.jdbcTemplate   = jdbcTemplate;
+        this.enabled        = enabled;
+        this.channel        = channel;
+        this.coalesceMs     = coalesceMs;
+        this.stormThreshold = stormThreshold;
+
+        this.published       = meterRegistry.counter("cache.invalidation.published");
+        this.publishFailures = meterRegistry.counter("cache.invalidation.publish.failures");
+        this.collapsed       = meterRegistry.counter("cache.invalidation.collapsed");
+        meterRegistry.gaugeCollectionSize("cache.invalidation.outbound.queue", Tags.empty(), outbound);
+    }
+
+    // -------------------------------------------------------
+    // Publishing API — call inside the writing transaction
+    // -------------------------------------------------------
+    public void invalidate(String key) {
+        record(batch -> batch.keys.add(key));
+    }
+
+    public void invalidatePrefix(String prefix) {
+        record(batch -> batch.prefixes.add(prefix));
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public String getChannel() {
+        return channel;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** Most individual keys one commit can publish before they collapse into prefixes. */
+    public int getStormThreshold() {
+        return stormThreshold;
+    }
+
+    // -------------------------------------------------------
+    // Local application — also used by PgInvalidationListener
+    // -------------------------------------------------------
+    void dispatchLocal(InvalidationBatch batch) {
+        for (InvalidationTarget target : targets()) {
+            try {
+                batch.applyTo(target);
+            } catch (RuntimeException e) {
+                log.warn("Cache {} failed to apply invalidation", target.getClass().getSimpleName(), e);
+            }
+        }
+    }
+
+    void flushAllLocal() {
+        InvalidationBatch all = new InvalidationBatch(nodeId, System.currentTimeMillis());
+        all.all = true;
+        dispatchLocal(all);
+    }
+
+    /**
+     * Collects into one batch per transaction, bound as a transaction resource
+     * and published from afterCompletion only if the transaction committed.
+     * Outside a transaction the change is published straight away.
+     */
+    private void record(Consumer<InvalidationBatch> change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            InvalidationBatch immediate = new InvalidationBatch(nodeId, System.currentTimeMillis());
+            change.accept(immediate);
+            publish(immediate);
+            return;
+        }
+        InvalidationBatch pending = (InvalidationBatch) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            InvalidationBatch created = new InvalidationBatch(nodeId, 0);
+            TransactionSynchronizationManager.bindResource(this, created);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(CacheInvalidationBus.this);
+                    if (status == STATUS_COMMITTED && !created.isEmpty()) {
+                        InvalidationBatch committed =
+                                new InvalidationBatch(nodeId, System.currentTimeMillis());
+                        committed.merge(created);
+                        publish(committed);
+                    }
+                }
+            });
+            pending = created;
+        }
+        change.accept(pending);
+    }
+
+    // Storms are collapsed before local dispatch too, so a bulk write costs
+    // one prefix flush per target here instead of one call per row
+    private void publish(InvalidationBatch batch) {
+        if (batch.keys.size() > stormThreshold) {
+            collapsed.increment();
+        }
+        batch.coalesce(stormThreshold);
+        dispatchLocal(batch);
+        if (enabled) {
+            outbound.offer(batch);
+        }
+    }
+
+    private List<InvalidationTarget> targets() {
+        List<InvalidationTarget> resolved = targets;
+        if (resolved == null) {
+            resolved = targetProvider.orderedStream().toList();
+            targets = resolved;
+        }
+        return resolved;
+    }
+
+    // -------------------------------------------------------
+    // Sender thread — coalesces and NOTIFYs
+    // -------------------------------------------------------
+    private void sendLoop() {
+        while (running) {
+            InvalidationBatch first;
+            try {
+                first = outbound.take();
+                if (coalesceMs > 0) {
+                    TimeUnit.MILLISECONDS.sleep(coalesceMs);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+
+            List<InvalidationBatch> drained = new ArrayList<>();
+            drained.add(first);
+            outbound.drainTo(drained);
+
+            List<InvalidationBatch> merged = InvalidationBatch.mergeUpTo(drained, stormThreshold, nodeId);
+            for (int i = 0; i < merged.size(); i++) {
+                InvalidationBatch batch = merged.get(i);
+                if (batch.keys.size() > stormThreshold) {
+                    collapsed.increment();
+                }
+                batch.coalesce(stormThreshold);
+
+                try {
+                    for (String payload : batch.encode()) {
+                        jdbcTemplate.queryForObject("SELECT pg_notify(?, ?)", Object.class, channel, payload);
+                        published.increment();
+                    }
+                } catch (RuntimeException e) {
+                    publishFailures.increment();
+                    log.warn("Failed to publish cache invalidation, will retry: {}", e.getMessage());
+                    merged.subList(i, merged.size()).forEach(outbound::offer);
+                    try {
+                        TimeUnit.SECONDS.sleep(1);
+                    } catch (InterruptedException ie) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    break;
+                }
+            }
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        if (enabled) {
+            sender = new Thread(this::sendLoop, "cache-invalidation-sender");
+            sender.setDaemon(true);
+            sender.start();
+        }
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (sender != null) {
+            sender.interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
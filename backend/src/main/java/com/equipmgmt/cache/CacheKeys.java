@@ -0,0 +1,43 @@
+package com.equipmgmt.cache;
+
+/**
+ * Key conventions shared by the services that publish invalidations and the
+ * caches that consume them. A key is {@code <namespace>:<id>}; the namespace
+ * plus colon doubles as the prefix that covers the whole namespace.
+ */
+public final class CacheKeys {
+
+    public static final String EQUIPMENT_PREFIX      = "equipment:";
+    public static final String EQUIPMENT_LIST_PREFIX = "equipment-list:";
+    public static final String MAINTENANCE_PREFIX    = "maintenance:";
+
+    private CacheKeys() {
+    }
+
+    public static String equipment(Long id) {
+        return EQUIPMENT_PREFIX + id;
+    }
+
+    /** Maintenance history of one equipment. */
+    public static String maintenance(Long equipmentId) {
+        return MAINTENANCE_PREFIX + equipmentId;
+    }
+
+    /** Namespace prefix of a key, used to collapse invalidation storms. */
+    static String namespaceOf(String key) {
+        int colon = key.indexOf(':');
+        return colon < 0 ? key : key.substring(0, colon + 1);
+    }
+
+    /** Parses the id out of an {@code equipment:<id>} key, or returns null. */
+    public static Long equipmentId(String key) {
+        if (!key.startsWith(EQUIPMENT_PREFIX)) {
+            return null;
+        }
+        try {
+            return Long.valueOf(key.substring(EQUIPMENT_PREFIX.length()));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
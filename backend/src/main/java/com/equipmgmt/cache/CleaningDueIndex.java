@@ -0,0 +1,168 @@
+package com.equipmgmt.cache;
+
+import com.equipmgmt.repository.CleaningDueView;
+import com.equipmgmt.repository.EquipmentRepository;
+import com.equipmgmt.service.EquipmentService;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.stream.Stream;
+
+/**
+ * Time-ordered index of Active equipment by cleaning due date
+ * ({@code last_cleaned_date + MAX_DAYS_SINCE_CLEANING}).
+ *
+ * "Due within N days" is a head-set walk over a skip list ordered by
+ * (dueDate, id), so it costs O(log n + k) and never touches the table.
+ * Equipment that is not Active, or has no cleaning date, is not indexed.
+ *
+ * Built at startup and kept current through {@link ReloadableIndex} by
+ * EquipmentService create/update/delete and applyMaintenanceUpdate(s).
+ */
+@Component
+public class CleaningDueIndex extends ReloadableIndex<CleaningDueView> {
+
+    private static final Comparator<Due> BY_DUE_DATE =
+            Comparator.comparing(Due::dueDate).thenComparing(Due::id);
+
+    private final EquipmentRepository equipmentRepository;
+
+    private final ConcurrentSkipListSet<Due> byDueDate = new ConcurrentSkipListSet<>(BY_DUE_DATE);
+    private final Map<Long, Indexed>         byId      = new ConcurrentHashMap<>();
+
+    // Ids whose due date was set or moved, drained by the reminder engine
+    private final Set<Long> changed = ConcurrentHashMap.newKeySet();
+
+    public CleaningDueIndex(EquipmentRepository equipmentRepository,
+                            PlatformTransactionManager transactionManager) {
+        super(transactionManager);
+        this.equipmentRepository = equipmentRepository;
+    }
+
+    /** One indexed equipment; {@code dueDate} is the last day it may stay Active. */
+    public record Due(Long id, String name, LocalDate lastCleanedDate, LocalDate dueDate) {
+    }
+
+    /** An entry and the updated_at of the row it came from. */
+    private record Indexed(Due due, Instant version) {
+    }
+
+    // -------------------------------------------------------
+    // Query
+    // -------------------------------------------------------
+    /** Everything due on or before {@code until}, soonest (or most overdue) first. */
+    public List<Due> dueOnOrBefore(LocalDate until, int limit) {
+        Due upperBound = new Due(Long.MAX_VALUE, null, null, until);
+        List<Due> result = new ArrayList<>(Math.min(limit, 256));
+        for (Due due : byDueDate.headSet(upperBound, true)) {
+            result.add(due);
+            if (result.size() == limit) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Entries due after {@code after} (exclusive; null for no lower bound)
+     * and on or before {@code until} — the slice that entered a reminder
+     * horizon since the last run.
+     */
+    public List<Due> dueBetween(LocalDate after, LocalDate until) {
+        Due upperBound = new Due(Long.MAX_VALUE, null, null, until);
+        NavigableSet<Due> slice = after == null
+                ? byDueDate.headSet(upperBound, true)
+                : byDueDate.subSet(new Due(Long.MAX_VALUE, null, null, after), false, upperBound, true);
+        return new ArrayList<>(slice);
+    }
+
+    /** Hands ids back to {@link #drainChanged} after a failed reminder run. */
+    public void markChanged(Collection<Long> ids) {
+        changed.addAll(ids);
+    }
+
+    /**
+     * Current entries, due on or before {@code until}, whose due date was set
+     * or moved since the previous call — e.g. a back-dated cleaning that
+     * lands behind the reminder watermark. Every drained id is forgotten.
+     */
+    public List<Due> drainChanged(LocalDate until) {
+        List<Due> result = new ArrayList<>();
+        for (Iterator<Long> it = changed.iterator(); it.hasNext(); ) {
+            Indexed indexed = byId.get(it.next());
+            it.remove();
+            if (indexed != null && !indexed.due().dueDate().isAfter(until)) {
+                result.add(indexed.due());
+            }
+        }
+        return result;
+    }
+
+    // -------------------------------------------------------
+    // ReloadableIndex
+    // -------------------------------------------------------
+    @Override
+    protected Stream<CleaningDueView> streamAll() {
+        return equipmentRepository.streamAllCleaningDue();
+    }
+
+    @Override
+    protected List<CleaningDueView> loadAll(Collection<Long> ids) {
+        return equipmentRepository.findCleaningDueViewsByIdIn(ids);
+    }
+
+    @Override
+    protected Long idOf(CleaningDueView row) {
+        return row.getId();
+    }
+
+    @Override
+    protected Instant versionOf(CleaningDueView row) {
+        return row.getUpdatedAt();
+    }
+
+    @Override
+    protected Instant indexedVersion(Long id) {
+        Indexed indexed = byId.get(id);
+        return indexed == null ? null : indexed.version();
+    }
+
+    @Override
+    protected void upsert(CleaningDueView row) {
+        Due due = new Due(row.getId(), row.getName(), row.getLastCleanedDate(),
+                row.getLastCleanedDate().plusDays(EquipmentService.MAX_DAYS_SINCE_CLEANING));
+        Indexed previous = byId.put(due.id(), new Indexed(due, row.getUpdatedAt()));
+        if (previous != null) {
+            byDueDate.remove(previous.due());
+        }
+        byDueDate.add(due);
+        if (previous == null || !previous.due().dueDate().equals(due.dueDate())) {
+            changed.add(due.id());
+        }
+    }
+
+    @Override
+    protected void evict(Long id) {
+        Indexed previous = byId.remove(id);
+        if (previous != null) {
+            byDueDate.remove(previous.due());
+        }
+    }
+
+    @Override
+    protected Set<Long> indexedIds() {
+        return byId.keySet();
+    }
+}
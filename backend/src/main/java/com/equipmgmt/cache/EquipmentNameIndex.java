@@ -0,0 +1,370 @@
+package com.equipmgmt.cache;
+
+import com.equipmgmt.dto.EquipmentSuggestionDTO;
+import com.equipmgmt.repository.EquipmentNameView;
+import com.equipmgmt.repository.EquipmentRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.text.Normalizer;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * In-memory prefix index over normalized equipment names, for autocomplete.
+ *
+ * Entries live in an immutable snapshot of parallel arrays sorted by
+ * (normalized name, id) — interned names, ids, statuses and versions — plus
+ * the ids in ascending order with their slots, for lookups by id. A prefix
+ * lookup is two binary searches plus a walk over the first k matches, with no
+ * database round trip and no object per entry. Names are normalized by
+ * stripping accents, lower-casing and collapsing whitespace.
+ *
+ * Changes since the snapshot sit in a small sorted overlay that shadows it by
+ * id. Once the overlay holds more than a quarter of the snapshot (and after
+ * every build) the two are merged into a new snapshot, published together
+ * with an empty overlay so a reader always sees one consistent pair.
+ *
+ * Built at startup and kept current by EquipmentService writes through
+ * {@link ReloadableIndex}.
+ */
+@Component
+public class EquipmentNameIndex extends ReloadableIndex<EquipmentNameView> {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    // Smallest overlay worth merging into the snapshot
+    private static final int MIN_OVERLAY = 1_024;
+
+    private static final Comparator<Entry> BY_KEY =
+            Comparator.comparing(Entry::key).thenComparingLong(Entry::id);
+
+    private final EquipmentRepository equipmentRepository;
+
+    private volatile State state = State.of(Snapshot.EMPTY);
+    private volatile int   size;
+
+    public EquipmentNameIndex(EquipmentRepository equipmentRepository,
+                              PlatformTransactionManager transactionManager) {
+        super(transactionManager);
+        this.equipmentRepository = equipmentRepository;
+    }
+
+    /** A row changed since the snapshot; a null {@code name} marks it removed. */
+    private record Entry(long id, String key, String name, String status, Instant version) {
+
+        static Entry removed(long id) {
+            return new Entry(id, null, null, null, null);
+        }
+
+        boolean isRemoved() {
+            return name == null;
+        }
+
+        EquipmentSuggestionDTO toSuggestion() {
+            return EquipmentSuggestionDTO.builder().id(id).name(name).status(status).build();
+        }
+    }
+
+    /** A snapshot and the changes made since, swapped as one. */
+    private record State(Snapshot base, Map<Long, Entry> changed, NavigableSet<Entry> changedByKey) {
+
+        static State of(Snapshot base) {
+            return new State(base, new ConcurrentHashMap<>(), new ConcurrentSkipListSet<>(BY_KEY));
+        }
+
+        boolean contains(long id) {
+            Entry change = changed.get(id);
+            return change != null ? !change.isRemoved() : base.slotOf(id) >= 0;
+        }
+    }
+
+    // -------------------------------------------------------
+    // Query
+    // -------------------------------------------------------
+    public List<EquipmentSuggestionDTO> suggest(String prefix, int limit) {
+        String from = normalize(prefix);
+        List<EquipmentSuggestionDTO> result = new ArrayList<>(limit);
+        if (from.isEmpty()) {
+            return result;
+        }
+        String to = from + Character.MAX_VALUE;
+        State current = state;
+        Snapshot base = current.base();
+
+        int slot = base.lowerBound(from);
+        int end  = base.lowerBound(to);
+        Iterator<Entry> changes = current.changedByKey()
+                .subSet(bound(from), true, bound(to), false).iterator();
+        Entry change = changes.hasNext() ? changes.next() : null;
+
+        // Merge the two sorted runs, skipping snapshot slots the overlay shadows
+        while (result.size() < limit) {
+            while (slot < end && current.changed().containsKey(base.ids[slot])) {
+                slot++;
+            }
+            if (slot < end && (change == null || base.compare(slot, change) < 0)) {
+                result.add(base.toSuggestion(slot++));
+            } else if (change != null) {
+                result.add(change.toSuggestion());
+                change = changes.hasNext() ? changes.next() : null;
+            } else {
+                break;
+            }
+        }
+        return result;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // -------------------------------------------------------
+    // ReloadableIndex
+    // -------------------------------------------------------
+    @Override
+    protected Stream<EquipmentNameView> streamAll() {
+        return equipmentRepository.streamAllNames();
+    }
+
+    @Override
+    protected List<EquipmentNameView> loadAll(Collection<Long> ids) {
+        return equipmentRepository.findNameViewsByIdIn(ids);
+    }
+
+    @Override
+    protected Long idOf(EquipmentNameView row) {
+        return row.getId();
+    }
+
+    @Override
+    protected Instant versionOf(EquipmentNameView row) {
+        return row.getUpdatedAt();
+    }
+
+    @Override
+    protected Instant indexedVersion(Long id) {
+        State current = state;
+        Entry change = current.changed().get(id);
+        if (change != null) {
+            return change.version();
+        }
+        int slot = current.base().slotOf(id);
+        return slot < 0 ? null : fromMicros(current.base().versions[slot]);
+    }
+
+    @Override
+    protected void upsert(EquipmentNameView row) {
+        State current = state;
+        String name = row.getName().intern();
+        String key  = normalize(name);
+        Entry entry = new Entry(row.getId(), key.equals(name) ? name : key.intern(), name,
+                row.getStatus().intern(), row.getUpdatedAt());
+
+        if (!current.contains(entry.id())) {
+            size++;
+        }
+        Entry previous = current.changed().put(entry.id(), entry);
+        if (previous != null) {
+            current.changedByKey().remove(previous);
+        }
+        current.changedByKey().add(entry);
+        mergeIfLarge(current);
+    }
+
+    @Override
+    protected void evict(Long id) {
+        State current = state;
+        if (!current.contains(id)) {
+            return;
+        }
+        size--;
+        // Only a row that is in the snapshot needs a removal marker
+        Entry previous = current.base().slotOf(id) >= 0
+                ? current.changed().put(id, Entry.removed(id))
+                : current.changed().remove(id);
+        if (previous != null) {
+            current.changedByKey().remove(previous);
+        }
+        mergeIfLarge(current);
+    }
+
+    @Override
+    protected Set<Long> indexedIds() {
+        State current = state;
+        Set<Long> ids = new HashSet<>();
+        for (long id : current.base().ids) {
+            if (!current.changed().containsKey(id)) {
+                ids.add(id);
+            }
+        }
+        current.changedByKey().forEach(entry -> ids.add(entry.id()));
+        return ids;
+    }
+
+    @Override
+    protected void afterBuild() {
+        if (!state.changed().isEmpty()) {
+            state = State.of(merge(state));
+        }
+    }
+
+    static String normalize(String name) {
+        if (name == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(name, Normalizer.Form.NFD);
+        String stripped   = DIACRITICS.matcher(decomposed).replaceAll("");
+        return WHITESPACE.matcher(stripped.toLowerCase(Locale.ROOT).trim()).replaceAll(" ");
+    }
+
+    // -------------------------------------------------------
+    // Snapshot
+    // -------------------------------------------------------
+    private void mergeIfLarge(State current) {
+        if (current.changed().size() > Math.max(MIN_OVERLAY, current.base().length() / 4)) {
+            state = State.of(merge(current));
+        }
+    }
+
+    /** The snapshot with the overlay applied: one pass over both sorted runs. */
+    private static Snapshot merge(State current) {
+        Snapshot base = current.base();
+        int capacity = base.length() + current.changedByKey().size();
+        String[] keys     = new String[capacity];
+        String[] names    = new String[capacity];
+        long[]   ids      = new long[capacity];
+        String[] statuses = new String[capacity];
+        long[]   versions = new long[capacity];
+
+        int n = 0;
+        int slot = 0;
+        Iterator<Entry> changes = current.changedByKey().iterator();
+        Entry change = changes.hasNext() ? changes.next() : null;
+        while (true) {
+            while (slot < base.length() && current.changed().containsKey(base.ids[slot])) {
+                slot++;
+            }
+            if (slot < base.length() && (change == null || base.compare(slot, change) < 0)) {
+                keys[n]     = base.keys[slot];
+                names[n]    = base.names[slot];
+                ids[n]      = base.ids[slot];
+                statuses[n] = base.statuses[slot];
+                versions[n] = base.versions[slot];
+                slot++;
+            } else if (change != null) {
+                keys[n]     = change.key();
+                names[n]    = change.name();
+                ids[n]      = change.id();
+                statuses[n] = change.status();
+                versions[n] = toMicros(change.version());
+                change = changes.hasNext() ? changes.next() : null;
+            } else {
+                break;
+            }
+            n++;
+        }
+        return new Snapshot(Arrays.copyOf(keys, n), Arrays.copyOf(names, n), Arrays.copyOf(ids, n),
+                Arrays.copyOf(statuses, n), Arrays.copyOf(versions, n));
+    }
+
+    // Sorts before every entry with this key
+    private static Entry bound(String key) {
+        return new Entry(Long.MIN_VALUE, key, null, null, null);
+    }
+
+    private static long toMicros(Instant instant) {
+        return instant.getEpochSecond() * 1_000_000 + instant.getNano() / 1_000;
+    }
+
+    private static Instant fromMicros(long micros) {
+        return Instant.ofEpochSecond(Math.floorDiv(micros, 1_000_000), Math.floorMod(micros, 1_000_000) * 1_000L);
+    }
+
+    /**
+     * Parallel arrays sorted by (key, id). A key that equals its name is the
+     * same String instance, so names that are already normalized cost nothing
+     * extra.
+     */
+    private static final class Snapshot {
+
+        static final Snapshot EMPTY =
+                new Snapshot(new String[0], new String[0], new long[0], new String[0], new long[0]);
+
+        final String[] keys;
+        final String[] names;
+        final long[]   ids;
+        final String[] statuses;
+        final long[]   versions; // updated_at in epoch microseconds
+
+        // Ids ascending and the slot of each, for lookups by id
+        final long[] idOrder;
+        final int[]  slotById;
+
+        Snapshot(String[] keys, String[] names, long[] ids, String[] statuses, long[] versions) {
+            this.keys     = keys;
+            this.names    = names;
+            this.ids      = ids;
+            this.statuses = statuses;
+            this.versions = versions;
+            this.idOrder  = ids.clone();
+            this.slotById = new int[ids.length];
+            Arrays.sort(idOrder);
+            for (int slot = 0; slot < ids.length; slot++) {
+                slotById[Arrays.binarySearch(idOrder, ids[slot])] = slot;
+            }
+        }
+
+        int length() {
+            return ids.length;
+        }
+
+        int slotOf(long id) {
+            int i = Arrays.binarySearch(idOrder, id);
+            return i < 0 ? -1 : slotById[i];
+        }
+
+        /** First slot whose key is not less than {@code key}. */
+        int lowerBound(String key) {
+            int lo = 0;
+            int hi = keys.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (keys[mid].compareTo(key) < 0) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo;
+        }
+
+        int compare(int slot, Entry entry) {
+            int byKey = keys[slot].compareTo(entry.key());
+            return byKey != 0 ? byKey : Long.compare(ids[slot], entry.id());
+        }
+
+        EquipmentSuggestionDTO toSuggestion(int slot) {
+            return EquipmentSuggestionDTO.builder()
+                    .id(ids[slot])
+                    .name(names[slot])
+                    .status(statuses[slot])
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.equipmgmt.cache;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Reports DOWN until every {@link ReloadableIndex} has been built, and again
+ * whenever a rebuild has failed and is waiting for its retry, so a node whose
+ * /suggest or /due answers would be empty or stale is not reported healthy.
+ * Shown as {@code equipmentIndexes} under /actuator/health.
+ */
+@Component("equipmentIndexes")
+public class IndexHealthIndicator implements HealthIndicator {
+
+    private final List<ReloadableIndex<?>> indexes;
+
+    public IndexHealthIndicator(List<ReloadableIndex<?>> indexes) {
+        this.indexes = indexes;
+    }
+
+    @Override
+    public Health health() {
+        boolean allReady = true;
+        Health.Builder builder = new Health.Builder();
+        for (ReloadableIndex<?> index : indexes) {
+            boolean ready = index.isReady();
+            allReady &= ready;
+            builder.withDetail(index.getClass().getSimpleName(), ready ? "ready" : "building");
+        }
+        return (allReady ? builder.up() : builder.down()).build();
+    }
+}
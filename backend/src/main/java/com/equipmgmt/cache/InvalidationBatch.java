@@ -0,0 +1,153 @@
+package com.equipmgmt.cache;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A coalesced set of invalidations plus the wire format used as the NOTIFY payload:
+ *
+ * <pre>origin|sentAtMillis|kequipment:42,pequipment-list:,*</pre>
+ *
+ * {@code k} marks a key, {@code p} a prefix and {@code *} a flush-all. Payloads are
+ * split to stay under PostgreSQL's 8000-byte NOTIFY limit.
+ */
+final class InvalidationBatch {
+
+    private static final int MAX_PAYLOAD_CHARS = 7000;
+
+    final String      origin;
+    final long        sentAtMillis;
+    final Set<String> keys     = new LinkedHashSet<>();
+    final Set<String> prefixes = new LinkedHashSet<>();
+    boolean           all;
+
+    InvalidationBatch(String origin, long sentAtMillis) {
+        this.origin       = origin;
+        this.sentAtMillis = sentAtMillis;
+    }
+
+    boolean isEmpty() {
+        return !all && keys.isEmpty() && prefixes.isEmpty();
+    }
+
+    void merge(InvalidationBatch other) {
+        all |= other.all;
+        keys.addAll(other.keys);
+        prefixes.addAll(other.prefixes);
+    }
+
+    /**
+     * Merges consecutive batches into as few as possible without taking a
+     * merged batch past {@code maxKeys} keys, so commits that were each small
+     * enough to carry per-key invalidations are not collapsed into prefixes
+     * just because they were sent or received together. A batch already over
+     * the limit stays on its own. Each result is stamped with the oldest
+     * send time it contains.
+     */
+    static List<InvalidationBatch> mergeUpTo(List<InvalidationBatch> batches, int maxKeys, String origin) {
+        List<List<InvalidationBatch>> groups = new ArrayList<>();
+        List<InvalidationBatch> group = null;
+        int groupKeys = 0;
+        for (InvalidationBatch batch : batches) {
+            if (group == null || groupKeys + batch.keys.size() > maxKeys) {
+                group = new ArrayList<>();
+                groups.add(group);
+                groupKeys = 0;
+            }
+            group.add(batch);
+            groupKeys += batch.keys.size();
+        }
+
+        List<InvalidationBatch> merged = new ArrayList<>(groups.size());
+        for (List<InvalidationBatch> g : groups) {
+            long oldest = g.stream().mapToLong(b -> b.sentAtMillis).min().orElse(0);
+            InvalidationBatch m = new InvalidationBatch(origin, oldest);
+            g.forEach(m::merge);
+            merged.add(m);
+        }
+        return merged;
+    }
+
+    /**
+     * Collapses an invalidation storm: when there are more than
+     * {@code maxKeys} individual keys, each is replaced by its namespace
+     * prefix. Keys already covered by a prefix are always dropped.
+     */
+    void coalesce(int maxKeys) {
+        if (all) {
+            keys.clear();
+            prefixes.clear();
+            return;
+        }
+        if (keys.size() > maxKeys) {
+            for (String key : keys) {
+                prefixes.add(CacheKeys.namespaceOf(key));
+            }
+            keys.clear();
+        }
+        keys.removeIf(key -> prefixes.stream().anyMatch(key::startsWith));
+    }
+
+    /** Applies this batch to one cache. */
+    void applyTo(InvalidationTarget target) {
+        if (all) {
+            target.invalidateAll();
+            return;
+        }
+        prefixes.forEach(target::invalidatePrefix);
+        keys.forEach(target::invalidate);
+    }
+
+    List<String> encode() {
+        List<String> entries = new ArrayList<>();
+        if (all) {
+            entries.add("*");
+        } else {
+            prefixes.forEach(p -> entries.add("p" + p));
+            keys.forEach(k -> entries.add("k" + k));
+        }
+
+        String header = origin + "|" + sentAtMillis + "|";
+        List<String> payloads = new ArrayList<>();
+        StringBuilder current = new StringBuilder(header);
+        for (String entry : entries) {
+            if (current.length() > header.length()
+                    && current.length() + entry.length() + 1 > MAX_PAYLOAD_CHARS) {
+                payloads.add(current.toString());
+                current = new StringBuilder(header);
+            }
+            if (current.length() > header.length()) {
+                current.append(',');
+            }
+            current.append(entry);
+        }
+        payloads.add(current.toString());
+        return payloads;
+    }
+
+    /** Returns null for payloads that do not follow the format. */
+    static InvalidationBatch decode(String payload) {
+        String[] parts = payload.split("\\|", 3);
+        if (parts.length != 3) {
+            return null;
+        }
+        InvalidationBatch batch;
+        try {
+            batch = new InvalidationBatch(parts[0], Long.parseLong(parts[1]));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        for (String entry : parts[2].split(",")) {
+            if (entry.equals("*")) {
+                batch.all = true;
+            } else if (entry.startsWith("k")) {
+                batch.keys.add(entry.substring(1));
+            } else if (entry.startsWith("p")) {
+                batch.prefixes.add(entry.substring(1));
+            }
+        }
+        return batch;
+    }
+}
@@ -0,0 +1,21 @@
+package com.equipmgmt.cache;
+
+/**
+ * An in-process cache that wants to hear about committed writes.
+ *
+ * Any Spring bean implementing this interface is registered with the
+ * {@link CacheInvalidationBus} automatically. Callbacks arrive both for writes
+ * made on this instance (right after commit) and for writes made on other
+ * instances (via PostgreSQL NOTIFY). They must be cheap and must not throw.
+ */
+public interface InvalidationTarget {
+
+    /** Drop the entry stored under exactly this key, e.g. {@code equipment:42}. */
+    void invalidate(String key);
+
+    /** Drop every entry whose key starts with this prefix, e.g. {@code equipment-list:}. */
+    void invalidatePrefix(String prefix);
+
+    /** Drop everything — used after the bus may have missed messages. */
+    void invalidateAll();
+}
@@ -0,0 +1,228 @@
+package com.equipmgmt.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.postgresql.PGProperty;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Receives invalidations published by other instances.
+ *
+ * Holds one dedicated JDBC connection (outside the pool) that LISTENs on the
+ * bus channel. Notifications that arrive together are merged, up to the
+ * storm threshold, and coalesced before they are applied, so a burst of
+ * writes elsewhere costs few passes over the local caches without turning
+ * per-key invalidations into prefix flushes.
+ *
+ * If the connection drops, or cannot be opened at startup, messages sent
+ * meanwhile are lost. The listener therefore retries with exponential backoff
+ * and, once LISTEN is active after any failed attempt, flushes every local
+ * cache. Every read on the connection is bounded
+ * by a socket timeout, so a heartbeat on a half-open connection fails instead
+ * of blocking the listener thread forever.
+ */
+@Slf4j
+@Component
+public class PgInvalidationListener implements SmartLifecycle {
+
+    private static final long POLL_TIMEOUT_MS    = 500;
+    private static final long HEARTBEAT_MS       = 30_000;
+    private static final long INITIAL_BACKOFF_MS = 500;
+
+    private final CacheInvalidationBus bus;
+    private final DataSourceProperties dataSourceProperties;
+    private final long maxBackoffMs;
+    private final int  socketTimeoutSeconds;
+
+    private final Counter received;
+    private final Counter reconnects;
+    private final Counter flushes;
+    private final Timer   staleness;
+
+    private volatile boolean    running;
+    private volatile Connection connection;
+    private Thread listener;
+
+    public PgInvalidationListener(
+            CacheInvalidationBus bus,
+            DataSourceProperties dataSourceProperties,
+            MeterRegistry meterRegistry,
+            @Value("${app.cache.invalidation.max-backoff-ms:30000}") long maxBackoffMs,
+            @Value("${app.cache.invalidation.socket-timeout-seconds:10}") int socketTimeoutSeconds) {
+        this.bus                  = bus;
+        this.dataSourceProperties = dataSourceProperties;
+        this.maxBackoffMs         = maxBackoffMs;
+        this.socketTimeoutSeconds = socketTimeoutSeconds;
+
+        this.received   = meterRegistry.counter("cache.invalidation.received");
+        this.reconnects = meterRegistry.counter("cache.invalidation.reconnects");
+        this.flushes    = meterRegistry.counter("cache.invalidation.flush.all");
+        // Commit on the writing instance → applied here. Includes clock skew between hosts.
+        this.staleness  = Timer.builder("cache.invalidation.staleness")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+
+    private void listenLoop() {
+        boolean connectedBefore = false;
+        boolean missedMessages  = false;
+        long backoff = INITIAL_BACKOFF_MS;
+
+        while (running) {
+            try (Connection conn = DriverManager.getConnection(
+                    dataSourceProperties.determineUrl(), connectionProperties())) {
+                connection = conn;
+                try (Statement st = conn.createStatement()) {
+                    // Channel name is validated by the bus; LISTEN takes no bind parameters
+                    st.execute("LISTEN " + bus.getChannel());
+                }
+                if (connectedBefore) {
+                    reconnects.increment();
+                }
+                // Includes a first connect that only succeeded after retries:
+                // the caches may have been filled while nothing was listening
+                if (missedMessages) {
+                    flushes.increment();
+                    log.info("Invalidation listener connected after a failed attempt — flushing local caches");
+                    bus.flushAllLocal();
+                }
+                connectedBefore = true;
+                missedMessages  = false;
+                backoff = INITIAL_BACKOFF_MS;
+
+                poll(conn);
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                missedMessages = true;
+                log.warn("Invalidation listener connection lost ({}), retrying in {} ms",
+                        e.getMessage(), backoff);
+                if (!sleep(backoff)) {
+                    return;
+                }
+                backoff = Math.min(backoff * 2, maxBackoffMs);
+            } finally {
+                connection = null;
+            }
+        }
+    }
+
+    private void poll(Connection conn) throws SQLException {
+        PGConnection pg = conn.unwrap(PGConnection.class);
+        long lastHeartbeat = System.currentTimeMillis();
+
+        while (running) {
+            PGNotification[] notifications = pg.getNotifications((int) POLL_TIMEOUT_MS);
+            if (notifications != null && notifications.length > 0) {
+                apply(notifications);
+            }
+            // A half-open TCP connection never errors on its own; probe it
+            if (System.currentTimeMillis() - lastHeartbeat > HEARTBEAT_MS) {
+                try (Statement st = conn.createStatement()) {
+                    st.setQueryTimeout(socketTimeoutSeconds);
+                    st.execute("SELECT 1");
+                }
+                lastHeartbeat = System.currentTimeMillis();
+            }
+        }
+    }
+
+    private Properties connectionProperties() {
+        Properties props = new Properties();
+        String username = dataSourceProperties.determineUsername();
+        String password = dataSourceProperties.determinePassword();
+        if (username != null) {
+            props.setProperty(PGProperty.USER.getName(), username);
+        }
+        if (password != null) {
+            props.setProperty(PGProperty.PASSWORD.getName(), password);
+        }
+        // getNotifications() overrides this only for its own short poll
+        props.setProperty(PGProperty.SOCKET_TIMEOUT.getName(), String.valueOf(socketTimeoutSeconds));
+        return props;
+    }
+
+    private void apply(PGNotification[] notifications) {
+        List<InvalidationBatch> batches = new ArrayList<>(notifications.length);
+        long oldest = Long.MAX_VALUE;
+
+        for (PGNotification notification : notifications) {
+            InvalidationBatch batch = InvalidationBatch.decode(notification.getParameter());
+            if (batch == null || bus.getNodeId().equals(batch.origin)) {
+                continue; // malformed, or our own write (already applied locally)
+            }
+            received.increment();
+            oldest = Math.min(oldest, batch.sentAtMillis);
+            batches.add(batch);
+        }
+        if (batches.isEmpty()) {
+            return;
+        }
+
+        int threshold = bus.getStormThreshold();
+        for (InvalidationBatch merged : InvalidationBatch.mergeUpTo(batches, threshold, batches.get(0).origin)) {
+            merged.coalesce(threshold);
+            bus.dispatchLocal(merged);
+        }
+        staleness.record(Duration.ofMillis(Math.max(0, System.currentTimeMillis() - oldest)));
+    }
+
+    private boolean sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    @Override
+    public void start() {
+        if (!bus.isEnabled()) {
+            return;
+        }
+        running = true;
+        listener = new Thread(this::listenLoop, "cache-invalidation-listener");
+        listener.setDaemon(true);
+        listener.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        Connection conn = connection;
+        if (conn != null) {
+            try {
+                conn.close();
+            } catch (SQLException ignored) {
+                // shutting down
+            }
+        }
+        if (listener != null) {
+            listener.interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
@@ -0,0 +1,295 @@
+package com.equipmgmt.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+/**
+ * Base for in-memory indexes over equipment rows that stay current through
+ * the {@link CacheInvalidationBus}.
+ *
+ * The index is built once after startup from a streamed read, on a background
+ * thread. A failed build is retried with exponential backoff, and
+ * {@link #isReady()} stays false until a build succeeds, so
+ * {@link IndexHealthIndicator} keeps the instance out of rotation instead of
+ * serving an empty or stale index.
+ *
+ * Each {@code equipment:<id>} invalidation — from a write on this instance or
+ * another — only marks the id dirty; a single reloader thread
+ * drains dirty ids in batches of up to {@value #RELOAD_BATCH} and reloads
+ * them with one query. The writing thread never waits for a connection or a
+ * query, and an id changed many times before the reloader gets to it is
+ * loaded once. A flush-all, or a storm collapsed into the {@code equipment:}
+ * prefix, rebuilds everything.
+ *
+ * Rows carry their {@code updated_at}; an upsert not newer than the indexed
+ * version is dropped, so a build that streamed a row before it changed can
+ * never overwrite the reloaded one, and a rebuild leaves unchanged rows alone.
+ *
+ * Subclasses supply the queries and keep their own structures, including the
+ * indexed versions; {@link #upsert} and {@link #evict} are always called under
+ * this object's monitor.
+ *
+ * @param <R> the projection row the index is built from
+ */
+@Slf4j
+public abstract class ReloadableIndex<R> implements InvalidationTarget {
+
+    private static final int  RELOAD_BATCH     = 500;
+    private static final long INITIAL_RETRY_MS = 1_000;
+    private static final long MAX_RETRY_MS     = 60_000;
+
+    private final TransactionTemplate readTx;
+
+    // Ids changed while a build is streaming; the build must not overwrite them
+    private final Set<Long>     touchedDuringBuild = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean building           = new AtomicBoolean();
+    private final AtomicBoolean rebuildRequested   = new AtomicBoolean();
+    private volatile boolean    ready;
+
+    // Dirty ids: the set de-duplicates, the queue wakes the reloader
+    private final Set<Long>           dirty           = ConcurrentHashMap.newKeySet();
+    private final BlockingQueue<Long> dirtyQueue      = new LinkedBlockingQueue<>();
+    private final AtomicBoolean       reloaderStarted = new AtomicBoolean();
+
+    protected ReloadableIndex(PlatformTransactionManager transactionManager) {
+        this.readTx = new TransactionTemplate(transactionManager);
+        this.readTx.setReadOnly(true);
+    }
+
+    /** Every row that belongs in the index; consumed inside a read-only transaction. */
+    protected abstract Stream<R> streamAll();
+
+    /** The rows among {@code ids} that belong in the index; the others are evicted. */
+    protected abstract List<R> loadAll(Collection<Long> ids);
+
+    protected abstract Long idOf(R row);
+
+    /** The row's updated_at. */
+    protected abstract Instant versionOf(R row);
+
+    /** The updated_at of the indexed row with this id, or null if none is indexed. */
+    protected abstract Instant indexedVersion(Long id);
+
+    protected abstract void upsert(R row);
+
+    protected abstract void evict(Long id);
+
+    /** Called under this object's monitor once a build has streamed every row. */
+    protected void afterBuild() {
+    }
+
+    /** Ids currently indexed, used to drop rows that vanished between builds. */
+    protected abstract Set<Long> indexedIds();
+
+    // -------------------------------------------------------
+    // Build
+    // -------------------------------------------------------
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        startReloader();
+        rebuildAsync();
+    }
+
+    protected void rebuildAsync() {
+        if (!building.compareAndSet(false, true)) {
+            rebuildRequested.set(true);
+            return;
+        }
+        Thread builder = new Thread(this::buildLoop, getClass().getSimpleName() + "-build");
+        builder.setDaemon(true);
+        builder.start();
+    }
+
+    /** True once a build has succeeded and no later one has failed. */
+    public boolean isReady() {
+        return ready;
+    }
+
+    private void buildLoop() {
+        long retryMs = INITIAL_RETRY_MS;
+        try {
+            while (true) {
+                if (rebuild()) {
+                    ready   = true;
+                    retryMs = INITIAL_RETRY_MS;
+                    // A flush-all arrived mid-build; the rows already streamed may be stale
+                    if (!rebuildRequested.getAndSet(false)) {
+                        return;
+                    }
+                    continue;
+                }
+                // Missed invalidations or an empty index; either way not safe to serve
+                ready = false;
+                rebuildRequested.set(false); // the retry covers it
+                log.warn("{} will retry the build in {} ms", getClass().getSimpleName(), retryMs);
+                TimeUnit.MILLISECONDS.sleep(retryMs);
+                retryMs = Math.min(retryMs * 2, MAX_RETRY_MS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            building.set(false);
+            // Requested between the last check and releasing the flag
+            if (rebuildRequested.getAndSet(false)) {
+                rebuildAsync();
+            }
+        }
+    }
+
+    private boolean rebuild() {
+        long started = System.currentTimeMillis();
+        try {
+            touchedDuringBuild.clear();
+            Set<Long> seen = ConcurrentHashMap.newKeySet();
+            readTx.executeWithoutResult(status -> {
+                try (Stream<R> rows = streamAll()) {
+                    rows.forEach(row -> {
+                        seen.add(idOf(row));
+                        upsertUnlessTouched(row);
+                    });
+                }
+            });
+            // Rows gone since the last build (and not re-added meanwhile)
+            indexedIds().stream()
+                    .filter(id -> !seen.contains(id) && !touchedDuringBuild.contains(id))
+                    .toList()
+                    .forEach(this::evictLocked);
+            synchronized (this) {
+                afterBuild();
+            }
+            log.info("{} built: {} entries in {} ms", getClass().getSimpleName(),
+                    seen.size(), System.currentTimeMillis() - started);
+            return true;
+        } catch (RuntimeException e) {
+            log.warn("{} build failed", getClass().getSimpleName(), e);
+            return false;
+        }
+    }
+
+    // -------------------------------------------------------
+    // Reload — one background thread, batched by id
+    // -------------------------------------------------------
+    private void startReloader() {
+        if (!reloaderStarted.compareAndSet(false, true)) {
+            return;
+        }
+        Thread reloader = new Thread(this::reloadLoop, getClass().getSimpleName() + "-reload");
+        reloader.setDaemon(true);
+        reloader.start();
+    }
+
+    private void reloadLoop() {
+        while (!Thread.currentThread().isInterrupted()) {
+            List<Long> ids = new ArrayList<>(RELOAD_BATCH);
+            try {
+                ids.add(dirtyQueue.take());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            dirtyQueue.drainTo(ids, RELOAD_BATCH - 1);
+            // Clear before reading: a change committed during the read marks the id again
+            ids.forEach(dirty::remove);
+
+            try {
+                reload(ids);
+            } catch (RuntimeException e) {
+                log.warn("{} reload of {} ids failed, will retry: {}",
+                        getClass().getSimpleName(), ids.size(), e.getMessage());
+                ids.forEach(this::markDirty);
+                try {
+                    TimeUnit.SECONDS.sleep(1);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void reload(List<Long> ids) {
+        List<R> rows = readTx.execute(status -> loadAll(ids));
+        Set<Long> present = new HashSet<>();
+        for (R row : rows) {
+            present.add(idOf(row));
+            upsertIfNewer(row);
+        }
+        ids.stream()
+                .filter(id -> !present.contains(id))
+                .forEach(this::evictLocked);
+    }
+
+    private void markDirty(Long id) {
+        if (dirty.add(id)) {
+            dirtyQueue.offer(id);
+        }
+    }
+
+    // -------------------------------------------------------
+    // InvalidationTarget
+    // -------------------------------------------------------
+    @Override
+    public void invalidate(String key) {
+        Long id = CacheKeys.equipmentId(key);
+        if (id == null) {
+            return;
+        }
+        if (building.get()) {
+            touchedDuringBuild.add(id);
+        }
+        startReloader();
+        markDirty(id);
+    }
+
+    @Override
+    public void invalidatePrefix(String prefix) {
+        // A collapsed storm of equipment keys — reload everything
+        if (CacheKeys.EQUIPMENT_PREFIX.equals(prefix)) {
+            rebuildAsync();
+        }
+    }
+
+    @Override
+    public void invalidateAll() {
+        rebuildAsync();
+    }
+
+    // -------------------------------------------------------
+    // Helpers
+    // -------------------------------------------------------
+    private synchronized void upsertIfNewer(R row) {
+        Instant indexed = indexedVersion(idOf(row));
+        if (indexed != null && !versionOf(row).isAfter(indexed)) {
+            return;
+        }
+        upsert(row);
+    }
+
+    private synchronized void evictLocked(Long id) {
+        evict(id);
+    }
+
+    // Check and upsert under the same monitor as the reload path, so a fresher
+    // reloaded row is never overwritten by the row the build streamed earlier
+    private synchronized void upsertUnlessTouched(R row) {
+        if (!touchedDuringBuild.contains(idOf(row))) {
+            upsertIfNewer(row);
+        }
+    }
+}
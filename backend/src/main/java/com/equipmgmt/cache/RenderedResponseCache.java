@@ -0,0 +1,145 @@
+package com.equipmgmt.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Bounded LRU cache of pre-serialized JSON response bodies.
+ *
+ * The bound is on bytes, not entries: each entry is charged its body length
+ * plus a fixed overhead, and least-recently-used entries are evicted until
+ * the total fits {@code max-bytes}. Bodies larger than {@code max-entry-bytes}
+ * are never cached.
+ *
+ * An entry may carry a version (e.g. the row's updated_at); a lookup with a
+ * different version is a miss. Keys follow {@link CacheKeys}, so the entries
+ * are dropped by the {@link CacheInvalidationBus} on every committed write,
+ * on this instance or another.
+ */
+@Component
+public class RenderedResponseCache implements InvalidationTarget {
+
+    // Key string, map node and entry object, roughly
+    private static final int ENTRY_OVERHEAD_BYTES = 128;
+
+    private final long maxBytes;
+    private final long maxEntryBytes;
+
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private long totalBytes;
+    private long generation;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    public RenderedResponseCache(
+            MeterRegistry meterRegistry,
+            @Value("${app.cache.rendered.max-bytes:67108864}")      long maxBytes,
+            @Value("${app.cache.rendered.max-entry-bytes:1048576}") long maxEntryBytes) {
+        this.maxBytes      = maxBytes;
+        this.maxEntryBytes = maxEntryBytes;
+
+        this.hits      = meterRegistry.counter("cache.rendered.hits");
+        this.misses    = meterRegistry.counter("cache.rendered.misses");
+        this.evictions = meterRegistry.counter("cache.rendered.evictions");
+        meterRegistry.gauge("cache.rendered.bytes", this, c -> c.snapshotBytes());
+        meterRegistry.gauge("cache.rendered.entries", this, c -> c.snapshotEntries());
+        meterRegistry.gauge("cache.rendered.hit.ratio", this, c -> {
+            double total = c.hits.count() + c.misses.count();
+            return total == 0 ? 0 : c.hits.count() / total;
+        });
+    }
+
+    /** Returns the cached body, or null on a miss or version mismatch. */
+    public synchronized byte[] get(String key, String version) {
+        Entry entry = entries.get(key);
+        if (entry == null || !Objects.equals(entry.version, version)) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.body;
+    }
+
+    /**
+     * Call before rendering a miss; pass the value to {@link #put}. A write
+     * that lands in between bumps the generation, and the stale body is dropped.
+     */
+    public synchronized long generation() {
+        return generation;
+    }
+
+    public synchronized void put(String key, String version, byte[] body, long expectedGeneration) {
+        if (expectedGeneration != generation || body.length > maxEntryBytes) {
+            return;
+        }
+        Entry previous = entries.put(key, new Entry(version, body));
+        if (previous != null) {
+            totalBytes -= charge(key, previous);
+        }
+        totalBytes += charge(key, entries.get(key));
+
+        Iterator<Map.Entry<String, Entry>> eldest = entries.entrySet().iterator();
+        while (totalBytes > maxBytes && eldest.hasNext()) {
+            Map.Entry<String, Entry> victim = eldest.next();
+            totalBytes -= charge(victim.getKey(), victim.getValue());
+            eldest.remove();
+            evictions.increment();
+        }
+    }
+
+    // -------------------------------------------------------
+    // InvalidationTarget
+    // -------------------------------------------------------
+    @Override
+    public synchronized void invalidate(String key) {
+        generation++;
+        Entry removed = entries.remove(key);
+        if (removed != null) {
+            totalBytes -= charge(key, removed);
+        }
+    }
+
+    @Override
+    public synchronized void invalidatePrefix(String prefix) {
+        generation++;
+        Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<String, Entry> e = it.next();
+            if (e.getKey().startsWith(prefix)) {
+                totalBytes -= charge(e.getKey(), e.getValue());
+                it.remove();
+            }
+        }
+    }
+
+    @Override
+    public synchronized void invalidateAll() {
+        generation++;
+        entries.clear();
+        totalBytes = 0;
+    }
+
+    private synchronized long snapshotBytes() {
+        return totalBytes;
+    }
+
+    private synchronized int snapshotEntries() {
+        return entries.size();
+    }
+
+    private static long charge(String key, Entry entry) {
+        return (long) key.length() * 2 + entry.body.length + ENTRY_OVERHEAD_BYTES;
+    }
+
+    private record Entry(String version, byte[] body) {
+    }
+}
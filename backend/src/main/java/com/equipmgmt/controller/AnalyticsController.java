@@ -0,0 +1,67 @@
+package com.equipmgmt.controller;
+
+import com.equipmgmt.dto.MaintenanceDailyCountDTO;
+import com.equipmgmt.dto.MaintenanceIntervalDTO;
+import com.equipmgmt.dto.TechnicianWorkloadDTO;
+import com.equipmgmt.service.MaintenanceAnalyticsService;
+import com.equipmgmt.service.MaintenanceRollupBackfill;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/analytics/maintenance")
+@RequiredArgsConstructor
+public class AnalyticsController {
+
+    private final MaintenanceAnalyticsService maintenanceAnalyticsService;
+    private final MaintenanceRollupBackfill   maintenanceRollupBackfill;
+
+    // -------------------------------------------------------
+    // GET /api/analytics/maintenance/daily-by-type?from=&to=
+    // Log counts per day and equipment type
+    // -------------------------------------------------------
+    @GetMapping("/daily-by-type")
+    public ResponseEntity<List<MaintenanceDailyCountDTO>> dailyByType(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(maintenanceAnalyticsService.dailyByType(from, to));
+    }
+
+    // -------------------------------------------------------
+    // GET /api/analytics/maintenance/technicians?from=&to=
+    // Log count per technician (performedBy), busiest first
+    // -------------------------------------------------------
+    @GetMapping("/technicians")
+    public ResponseEntity<List<TechnicianWorkloadDTO>> technicianWorkload(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(maintenanceAnalyticsService.technicianWorkload(from, to));
+    }
+
+    // -------------------------------------------------------
+    // GET /api/analytics/maintenance/equipment/{id}
+    // Log count and mean days between maintenance
+    // -------------------------------------------------------
+    @GetMapping("/equipment/{id}")
+    public ResponseEntity<MaintenanceIntervalDTO> maintenanceInterval(@PathVariable Long id) {
+        return ResponseEntity.ok(maintenanceAnalyticsService.maintenanceInterval(id));
+    }
+
+    // -------------------------------------------------------
+    // POST /api/analytics/maintenance/rebuild  → 202 Accepted
+    // Recounts the rollups from maintenance_logs in the
+    // background (409 if a rebuild is already running)
+    // -------------------------------------------------------
+    @PostMapping("/rebuild")
+    public ResponseEntity<Void> rebuild() {
+        return maintenanceRollupBackfill.start()
+                ? ResponseEntity.accepted().build()
+                : ResponseEntity.status(HttpStatus.CONFLICT).build();
+    }
+}
@@ -1,46 +1,98 @@
 package com.equipmgmt.controller;
 
+import com.equipmgmt.dto.BulkStatusRequestDTO;
+import com.equipmgmt.dto.BulkStatusResultDTO;
+import com.equipmgmt.dto.DueEquipmentDTO;
+import com.equipmgmt.dto.EquipmentFilter;
 import com.equipmgmt.dto.EquipmentRequestDTO;
 import com.equipmgmt.dto.EquipmentResponseDTO;
-import com.equipmgmt.dto.PagedResponseDTO;
+import com.equipmgmt.dto.EquipmentSuggestionDTO;
+import com.equipmgmt.service.CleaningScheduleService;
+import com.equipmgmt.service.EquipmentBulkStatusService;
 import com.equipmgmt.service.EquipmentService;
+import com.equipmgmt.service.RenderedEquipmentService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/equipment")
 @RequiredArgsConstructor
 public class EquipmentController {
 
-    private final EquipmentService equipmentService;
+    private final EquipmentService           equipmentService;
+    private final RenderedEquipmentService   renderedEquipmentService;
+    private final CleaningScheduleService    cleaningScheduleService;
+    private final EquipmentBulkStatusService equipmentBulkStatusService;
 
     // -------------------------------------------------------
     // GET /api/equipment
-    // Supports: ?search=, ?status=, ?page=, ?size=, ?sortBy=, ?sortDir=
+    // Supports: ?search=, ?status= (repeatable), ?typeId= (repeatable),
+    //           ?cleanedFrom=, ?cleanedTo= (ISO dates),
+    //           ?page=, ?size=, ?sortBy=, ?sortDir=
+    // Unsearched pages are served as cached JSON bytes
     // -------------------------------------------------------
     @GetMapping
-    public ResponseEntity<PagedResponseDTO<EquipmentResponseDTO>> getAll(
-            @RequestParam(required = false)              String search,
-            @RequestParam(required = false)              String status,
-            @RequestParam(defaultValue = "0")            int    page,
-            @RequestParam(defaultValue = "10")           int    size,
-            @RequestParam(defaultValue = "createdAt")    String sortBy,
-            @RequestParam(defaultValue = "desc")         String sortDir
+    public ResponseEntity<byte[]> getAll(
+            @RequestParam(required = false)              String       search,
+            @RequestParam(required = false)              List<String> status,
+            @RequestParam(required = false)              List<Long>   typeId,
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate  cleanedFrom,
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate  cleanedTo,
+            @RequestParam(defaultValue = "0")            int          page,
+            @RequestParam(defaultValue = "10")           int          size,
+            @RequestParam(defaultValue = "createdAt")    String       sortBy,
+            @RequestParam(defaultValue = "desc")         String       sortDir
     ) {
-        return ResponseEntity.ok(
-            equipmentService.getAll(search, status, page, size, sortBy, sortDir)
-        );
+        EquipmentFilter filter = EquipmentFilter.builder()
+                .search(search)
+                .statuses(status)
+                .typeIds(typeId)
+                .cleanedFrom(cleanedFrom)
+                .cleanedTo(cleanedTo)
+                .build();
+        return json(renderedEquipmentService.getAll(filter, page, size, sortBy, sortDir));
+    }
+
+    // -------------------------------------------------------
+    // GET /api/equipment/suggest?prefix=&limit=
+    // Name autocomplete from the in-memory prefix index
+    // -------------------------------------------------------
+    @GetMapping("/suggest")
+    public ResponseEntity<List<EquipmentSuggestionDTO>> suggest(
+            @RequestParam(defaultValue = "")   String prefix,
+            @RequestParam(defaultValue = "10") int    limit) {
+        return ResponseEntity.ok(equipmentService.suggest(prefix, limit));
+    }
+
+    // -------------------------------------------------------
+    // GET /api/equipment/due?withinDays=&limit=
+    // Active equipment whose 30-day cleaning window ends within
+    // N days (overdue first), from the in-memory due index
+    // -------------------------------------------------------
+    @GetMapping("/due")
+    public ResponseEntity<List<DueEquipmentDTO>> getDue(
+            @RequestParam(defaultValue = "7")   int withinDays,
+            @RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(cleaningScheduleService.getDue(withinDays, limit));
     }
 
     // -------------------------------------------------------
     // GET /api/equipment/{id}
+    // Served as cached JSON bytes, versioned by updated_at
     // -------------------------------------------------------
     @GetMapping("/{id}")
-    public ResponseEntity<EquipmentResponseDTO> getById(@PathVariable Long id) {
-        return ResponseEntity.ok(equipmentService.getById(id));
+    public ResponseEntity<byte[]> getById(@PathVariable Long id) {
+        return json(renderedEquipmentService.getById(id));
     }
 
     // -------------------------------------------------------
@@ -63,6 +115,17 @@ public class EquipmentController {
         return ResponseEntity.ok(equipmentService.update(id, dto));
     }
 
+    // -------------------------------------------------------
+    // PATCH /api/equipment/status  → 200 OK
+    // Moves every selected equipment (ids or list filter) to one
+    // status in chunked set-based UPDATEs; reports rejected rows
+    // -------------------------------------------------------
+    @PatchMapping("/status")
+    public ResponseEntity<BulkStatusResultDTO> updateStatus(
+            @Valid @RequestBody BulkStatusRequestDTO dto) {
+        return ResponseEntity.ok(equipmentBulkStatusService.transition(dto));
+    }
+
     // -------------------------------------------------------
     // DELETE /api/equipment/{id}  → 204 No Content
     // -------------------------------------------------------
@@ -71,4 +134,12 @@ public class EquipmentController {
         equipmentService.delete(id);
         return ResponseEntity.noContent().build();
     }
+
+    // Pre-serialized bodies are copied straight to the servlet output stream
+    private ResponseEntity<byte[]> json(byte[] body) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .contentLength(body.length)
+                .body(body);
+    }
 }
@@ -2,6 +2,7 @@ package com.equipmgmt.controller;
 
 import com.equipmgmt.dto.MaintenanceRequestDTO;
 import com.equipmgmt.dto.MaintenanceResponseDTO;
+import com.equipmgmt.service.MaintenanceGroupCommitter;
 import com.equipmgmt.service.MaintenanceService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -16,17 +17,19 @@ import java.util.List;
 @RequiredArgsConstructor
 public class MaintenanceController {
 
-    private final MaintenanceService maintenanceService;
+    private final MaintenanceService        maintenanceService;
+    private final MaintenanceGroupCommitter maintenanceGroupCommitter;
 
     // -------------------------------------------------------
     // POST /api/maintenance  → 201 Created
     // Logs a maintenance event + auto-updates equipment
+    // (group-committed with concurrent calls when enabled)
     // -------------------------------------------------------
     @PostMapping("/maintenance")
     public ResponseEntity<MaintenanceResponseDTO> logMaintenance(
             @Valid @RequestBody MaintenanceRequestDTO dto) {
         return ResponseEntity.status(HttpStatus.CREATED)
-                .body(maintenanceService.logMaintenance(dto));
+                .body(maintenanceGroupCommitter.submit(dto));
     }
 
     // -------------------------------------------------------
@@ -0,0 +1,26 @@
+package com.equipmgmt.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Selects equipment either by {@code ids} or by {@code filter} (the list
+ * endpoint's filter) — exactly one of the two — and the status to move it to.
+ */
+@Data
+public class BulkStatusRequestDTO {
+
+    private List<Long> ids;
+
+    private EquipmentFilter filter;
+
+    @NotBlank(message = "Target status is required")
+    @Pattern(
+        regexp = "Active|Inactive|Under Maintenance",
+        message = "Target status must be one of: Active, Inactive, Under Maintenance"
+    )
+    private String targetStatus;
+}
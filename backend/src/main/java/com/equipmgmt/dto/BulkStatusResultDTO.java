@@ -0,0 +1,27 @@
+package com.equipmgmt.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class BulkStatusResultDTO {
+
+    private String targetStatus;
+    private long updated;
+    /** Already in the target status; left untouched. */
+    private long unchanged;
+    private long rejectedCount;
+    /** The first rejections, with the reason; capped, see rejectedCount. */
+    private List<Rejection> rejected;
+
+    @Data
+    @Builder
+    public static class Rejection {
+
+        private Long id;
+        private String reason;
+    }
+}
@@ -0,0 +1,19 @@
+package com.equipmgmt.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+@Data
+@Builder
+public class DueEquipmentDTO {
+
+    private Long id;
+    private String name;
+    private LocalDate lastCleanedDate;
+    /** Last day the equipment may stay Active without another cleaning. */
+    private LocalDate dueDate;
+    /** Negative when already overdue. */
+    private long daysUntilDue;
+}
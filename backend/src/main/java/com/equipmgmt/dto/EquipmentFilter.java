@@ -0,0 +1,29 @@
+package com.equipmgmt.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Optional filters for the equipment list. A null / empty field means
+ * "no filter" and produces no SQL predicate at all.
+ *
+ * Built from query parameters for GET /api/equipment and read from the
+ * request body for PATCH /api/equipment/status.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EquipmentFilter {
+
+    private String       search;
+    private List<String> statuses;
+    private List<Long>   typeIds;
+    private LocalDate    cleanedFrom;
+    private LocalDate    cleanedTo;
+}
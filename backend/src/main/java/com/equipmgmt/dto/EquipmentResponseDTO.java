@@ -16,6 +16,9 @@ public class EquipmentResponseDTO {
     private String typeName;
     private String status;
     private LocalDate lastCleanedDate;
+    private Long maintenanceCount;
+    private String lastMaintainedBy;
+    private LocalDate lastMaintenanceDate;
     private Instant createdAt;
     private Instant updatedAt;
 }
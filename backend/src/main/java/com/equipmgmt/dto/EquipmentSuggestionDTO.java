@@ -0,0 +1,13 @@
+package com.equipmgmt.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class EquipmentSuggestionDTO {
+
+    private Long id;
+    private String name;
+    private String status;
+}
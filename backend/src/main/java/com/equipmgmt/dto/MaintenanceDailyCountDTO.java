@@ -0,0 +1,16 @@
+package com.equipmgmt.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+@Data
+@Builder
+public class MaintenanceDailyCountDTO {
+
+    private LocalDate day;
+    private Long typeId;
+    private String typeName;
+    private long logCount;
+}
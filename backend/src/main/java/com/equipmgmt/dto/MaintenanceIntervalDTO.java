@@ -0,0 +1,18 @@
+package com.equipmgmt.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+@Data
+@Builder
+public class MaintenanceIntervalDTO {
+
+    private Long equipmentId;
+    private long logCount;
+    private LocalDate firstDate;
+    private LocalDate lastDate;
+    /** Mean days between consecutive maintenance dates; null with fewer than two logs. */
+    private Double meanDaysBetween;
+}
@@ -0,0 +1,12 @@
+package com.equipmgmt.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class TechnicianWorkloadDTO {
+
+    private String performedBy;
+    private long logCount;
+}
@@ -45,4 +45,25 @@ public class Equipment {
     @UpdateTimestamp
     @Column(name = "updated_at", nullable = false)
     private Instant updatedAt;
+
+    // Maintenance summary — written only by SQL (maintenance UPDATEs and
+    // EquipmentSummaryReconciler), so entity saves never overwrite it
+    @Builder.Default
+    @Column(name = "maintenance_count", nullable = false, insertable = false, updatable = false)
+    private Long maintenanceCount = 0L;
+
+    @Column(name = "last_maintained_by", insertable = false, updatable = false)
+    private String lastMaintainedBy;
+
+    @Column(name = "last_maintenance_date", insertable = false, updatable = false)
+    private LocalDate lastMaintenanceDate;
+
+    /**
+     * Tombstone. Non-null means the equipment was deleted and is waiting
+     * for the background purger; every read path filters these rows out.
+     * Written only by SQL (EquipmentRepository#markDeleted), so a save that
+     * races a delete cannot bring the row back.
+     */
+    @Column(name = "deleted_at", insertable = false, updatable = false)
+    private Instant deletedAt;
 }
@@ -33,6 +33,10 @@ public class MaintenanceLog {
     @Column(name = "performed_by", nullable = false, length = 255)
     private String performedBy;
 
+    // The equipment's type when the log was written — what the rollups count it under
+    @Column(name = "type_id", nullable = false, updatable = false)
+    private Long typeId;
+
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
     private Instant createdAt;
@@ -31,6 +31,14 @@ public class GlobalExceptionHandler {
         return buildResponse(HttpStatus.NOT_FOUND, "Not Found", ex.getMessage());
     }
 
+    // -------------------------------------------------------
+    // 400 — Invalid query parameters (unknown sort field, etc.)
+    // -------------------------------------------------------
+    @ExceptionHandler(InvalidRequestException.class)
+    public ResponseEntity<Map<String, Object>> handleInvalidRequest(InvalidRequestException ex) {
+        return buildResponse(HttpStatus.BAD_REQUEST, "Bad Request", ex.getMessage());
+    }
+
     // -------------------------------------------------------
     // 400 — Bean Validation Errors (@Valid)
     // -------------------------------------------------------
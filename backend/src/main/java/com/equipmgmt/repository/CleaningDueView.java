@@ -0,0 +1,18 @@
+package com.equipmgmt.repository;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * Projection of Active equipment with a cleaning date, for the due-soon index.
+ */
+public interface CleaningDueView {
+
+    Long getId();
+
+    String getName();
+
+    LocalDate getLastCleanedDate();
+
+    Instant getUpdatedAt();
+}
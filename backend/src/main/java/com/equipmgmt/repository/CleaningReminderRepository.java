@@ -0,0 +1,91 @@
+package com.equipmgmt.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Reminder state shared by every instance: which due date was announced for
+ * each equipment (cleaning_reminders) and how far the due-date horizon has
+ * been scanned (cleaning_reminder_watermark). All calls belong inside the
+ * sender's transaction.
+ */
+@Repository
+@RequiredArgsConstructor
+public class CleaningReminderRepository {
+
+    // pg advisory lock key held by the instance that sends reminders
+    private static final long SENDER_LOCK_KEY = 0x636c65616e5f726dL;
+
+    private final NamedParameterJdbcTemplate jdbc;
+
+    /** True if this transaction became the sender; released on commit or rollback. */
+    public boolean tryLockSender() {
+        return Boolean.TRUE.equals(jdbc.queryForObject(
+                "SELECT pg_try_advisory_xact_lock(:key)",
+                new MapSqlParameterSource("key", SENDER_LOCK_KEY),
+                Boolean.class));
+    }
+
+    /** Last due date scanned through, or empty before the first run. */
+    public Optional<LocalDate> findWatermark() {
+        return jdbc.queryForList(
+                "SELECT scanned_through FROM cleaning_reminder_watermark",
+                new MapSqlParameterSource(),
+                LocalDate.class).stream().findFirst();
+    }
+
+    public void saveWatermark(LocalDate scannedThrough) {
+        jdbc.update("""
+                INSERT INTO cleaning_reminder_watermark (singleton, scanned_through)
+                VALUES (TRUE, :scannedThrough)
+                ON CONFLICT (singleton) DO UPDATE SET scanned_through = EXCLUDED.scanned_through
+                """,
+                new MapSqlParameterSource("scannedThrough", scannedThrough));
+    }
+
+    /**
+     * Claims a reminder for each equipment id → due date not announced yet,
+     * and returns the ids claimed. An id whose announced due date differs
+     * (it was cleaned again) is claimed anew; tombstoned equipment is skipped.
+     */
+    public Set<Long> claim(Map<Long, LocalDate> dueDates) {
+        Set<Long> claimed = new HashSet<>();
+        if (dueDates.isEmpty()) {
+            return claimed;
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        StringBuilder values = new StringBuilder();
+        int i = 0;
+        for (Map.Entry<Long, LocalDate> entry : dueDates.entrySet()) {
+            if (i > 0) {
+                values.append(", ");
+            }
+            values.append("(:id").append(i).append(", CAST(:due").append(i).append(" AS DATE))");
+            params.addValue("id" + i,  entry.getKey());
+            params.addValue("due" + i, entry.getValue());
+            i++;
+        }
+        List<Long> ids = jdbc.queryForList("""
+                INSERT INTO cleaning_reminders (equipment_id, due_date)
+                SELECT v.id, v.due
+                FROM (VALUES %s) AS v(id, due)
+                JOIN equipment e ON e.id = v.id AND e.deleted_at IS NULL
+                ORDER BY v.id
+                ON CONFLICT (equipment_id) DO UPDATE
+                    SET due_date = EXCLUDED.due_date, sent_at = NOW()
+                    WHERE cleaning_reminders.due_date <> EXCLUDED.due_date
+                RETURNING equipment_id
+                """.formatted(values), params, Long.class);
+        claimed.addAll(ids);
+        return claimed;
+    }
+}
@@ -0,0 +1,247 @@
+package com.equipmgmt.repository;
+
+import com.equipmgmt.entity.Equipment;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Set-based statements over many equipment rows at once.
+ *
+ * Bulk status transitions: ids are selected with the same
+ * {@link Specification} as the list endpoint, one keyset page at a time;
+ * each page is locked through that Specification again and then
+ * transitioned by a single UPDATE that checks the 30-day Active rule
+ * against the locked row itself.
+ *
+ * Maintenance summary repair: one page of rows is locked, then corrected
+ * from an aggregate over their maintenance logs. Routine checks only visit
+ * equipment with logs past the maintenance_logs id watermark kept in
+ * maintenance_summary_watermark.
+ */
+@Repository
+public class EquipmentBulkRepository {
+
+    private final NamedParameterJdbcTemplate jdbc;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public EquipmentBulkRepository(NamedParameterJdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    /** One equipment row of a chunk; {@code status} is the value before the UPDATE. */
+    public record StatusTransitionRow(Long id, String status, LocalDate lastCleanedDate, boolean updated) {
+    }
+
+    /** Up to {@code limit} matching ids greater than {@code afterId}, ascending. */
+    public List<Long> findIdsAfter(Specification<Equipment> spec, long afterId, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Equipment> root = query.from(Equipment.class);
+        query.select(root.<Long>get("id"))
+             .where(spec.toPredicate(root, query, cb), cb.greaterThan(root.<Long>get("id"), afterId))
+             .orderBy(cb.asc(root.get("id")));
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    /**
+     * Locks the rows among {@code ids} that still match {@code spec}, in id
+     * order, and returns their ids. Under READ COMMITTED a row lock re-checks
+     * the WHERE clause against the newest row version, so a row another
+     * writer changed since {@link #findIdsAfter} selected it is skipped if it
+     * no longer matches.
+     */
+    public List<Long> lockMatching(Specification<Equipment> spec, List<Long> ids) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Equipment> root = query.from(Equipment.class);
+        query.select(root.<Long>get("id"))
+             .where(spec.toPredicate(root, query, cb), root.<Long>get("id").in(ids))
+             .orderBy(cb.asc(root.get("id")));
+        return entityManager.createQuery(query)
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .getResultList();
+    }
+
+    /**
+     * Locks the live rows among {@code ids} in id order and moves those not
+     * already in {@code targetStatus} to it. When the target is Active, only
+     * rows cleaned on or after {@code earliestCleaned} qualify — a NULL date
+     * never does. Returns every live row of the chunk with its outcome;
+     * missing or deleted ids are simply absent.
+     */
+    public List<StatusTransitionRow> transitionStatus(List<Long> ids, String targetStatus,
+                                                      boolean activating, LocalDate earliestCleaned) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("ids", ids)
+                .addValue("target", targetStatus)
+                .addValue("earliestCleaned", earliestCleaned);
+        String activeRule = activating ? "AND c.last_cleaned_date >= CAST(:earliestCleaned AS DATE)" : "";
+        return jdbc.query("""
+                WITH candidates AS (
+                    SELECT id, status, last_cleaned_date
+                    FROM equipment
+                    WHERE id IN (:ids) AND deleted_at IS NULL
+                    ORDER BY id
+                    FOR UPDATE
+                ),
+                updated AS (
+                    UPDATE equipment e
+                    SET status = :target
+                    FROM candidates c
+                    WHERE e.id = c.id
+                      AND c.status <> :target
+                      %s
+                    RETURNING e.id
+                )
+                SELECT c.id, c.status, c.last_cleaned_date, (u.id IS NOT NULL) AS updated
+                FROM candidates c
+                LEFT JOIN updated u ON u.id = c.id
+                ORDER BY c.id
+                """.formatted(activeRule),
+                params,
+                (rs, i) -> new StatusTransitionRow(
+                        rs.getLong("id"),
+                        rs.getString("status"),
+                        rs.getObject("last_cleaned_date", LocalDate.class),
+                        rs.getBoolean("updated")));
+    }
+
+    /**
+     * Locks the next {@code limit} live equipment rows after {@code afterId},
+     * in id order. FOR UPDATE conflicts with the key-share lock every
+     * maintenance_logs insert takes on its equipment row, so no log for these
+     * rows can commit, or be in flight, until the caller's transaction ends.
+     */
+    public List<Long> lockLiveIdsAfter(long afterId, int limit) {
+        return jdbc.queryForList("""
+                SELECT id FROM equipment
+                WHERE id > :afterId AND deleted_at IS NULL
+                ORDER BY id
+                LIMIT :limit
+                FOR UPDATE
+                """,
+                new MapSqlParameterSource("afterId", afterId).addValue("limit", limit),
+                Long.class);
+    }
+
+    /** Locks the live rows among {@code ids} in id order, as {@link #lockLiveIdsAfter} does. */
+    public List<Long> lockLiveIds(List<Long> ids) {
+        return jdbc.queryForList("""
+                SELECT id FROM equipment
+                WHERE id IN (:ids) AND deleted_at IS NULL
+                ORDER BY id
+                FOR UPDATE
+                """,
+                new MapSqlParameterSource("ids", ids),
+                Long.class);
+    }
+
+    /** Highest maintenance_logs id committed so far; 0 when there are none. */
+    public long findMaxLogId() {
+        Long max = jdbc.queryForObject(
+                "SELECT COALESCE(MAX(id), 0) FROM maintenance_logs",
+                new MapSqlParameterSource(),
+                Long.class);
+        return max == null ? 0 : max;
+    }
+
+    /** Equipment with a log whose id is in ({@code afterLogId}, {@code throughLogId}], ascending. */
+    public List<Long> findEquipmentIdsWithLogsBetween(long afterLogId, long throughLogId) {
+        return jdbc.queryForList("""
+                SELECT DISTINCT equipment_id FROM maintenance_logs
+                WHERE id > :afterLogId AND id <= :throughLogId
+                ORDER BY equipment_id
+                """,
+                new MapSqlParameterSource("afterLogId", afterLogId).addValue("throughLogId", throughLogId),
+                Long.class);
+    }
+
+    /**
+     * Moves the summary-check watermark up to {@code maxLogId} and returns the
+     * log id to check after, or empty before the first run. The returned id
+     * trails by one run, so every range is checked twice and a log that
+     * committed after a run read the maximum id is still seen. Concurrent
+     * callers queue on the watermark row and get successive ranges.
+     */
+    public Optional<Long> advanceSummaryWatermark(long maxLogId) {
+        return jdbc.queryForList("""
+                UPDATE maintenance_summary_watermark w
+                SET checked_through = prev.seen_through,
+                    seen_through    = GREATEST(prev.seen_through, :maxLogId)
+                FROM (SELECT checked_through, seen_through
+                      FROM maintenance_summary_watermark
+                      FOR UPDATE) prev
+                RETURNING prev.checked_through
+                """,
+                new MapSqlParameterSource("maxLogId", maxLogId),
+                Long.class).stream().findFirst();
+    }
+
+    /** Starts the watermark after a full check that began when {@code maxLogId} was the newest log. */
+    public void initSummaryWatermark(long maxLogId) {
+        jdbc.update("""
+                INSERT INTO maintenance_summary_watermark (singleton, checked_through, seen_through)
+                VALUES (TRUE, :maxLogId, :maxLogId)
+                ON CONFLICT (singleton) DO NOTHING
+                """,
+                new MapSqlParameterSource("maxLogId", maxLogId));
+    }
+
+    /**
+     * Recomputes maintenance_count, last_maintained_by and
+     * last_maintenance_date for {@code ids} from maintenance_logs and writes
+     * only the rows that drifted. "Last" is the latest maintenance date,
+     * then the latest written log. Returns the repaired ids.
+     */
+    public List<Long> repairMaintenanceSummary(List<Long> ids) {
+        return jdbc.queryForList("""
+                UPDATE equipment e
+                SET maintenance_count     = a.log_count,
+                    last_maintained_by    = a.last_by,
+                    last_maintenance_date = a.last_date
+                FROM (
+                    SELECT eq.id,
+                           COALESCE(c.log_count, 0) AS log_count,
+                           latest.performed_by      AS last_by,
+                           latest.maintenance_date  AS last_date
+                    FROM equipment eq
+                    LEFT JOIN (
+                        SELECT equipment_id, COUNT(*) AS log_count
+                        FROM maintenance_logs
+                        WHERE equipment_id IN (:ids)
+                        GROUP BY equipment_id
+                    ) c ON c.equipment_id = eq.id
+                    LEFT JOIN (
+                        SELECT DISTINCT ON (equipment_id) equipment_id, performed_by, maintenance_date
+                        FROM maintenance_logs
+                        WHERE equipment_id IN (:ids)
+                        ORDER BY equipment_id, maintenance_date DESC, created_at DESC, id DESC
+                    ) latest ON latest.equipment_id = eq.id
+                    WHERE eq.id IN (:ids)
+                ) a
+                WHERE e.id = a.id
+                  AND (e.maintenance_count <> a.log_count
+                       OR e.last_maintained_by    IS DISTINCT FROM a.last_by
+                       OR e.last_maintenance_date IS DISTINCT FROM a.last_date)
+                RETURNING e.id
+                """,
+                new MapSqlParameterSource("ids", ids),
+                Long.class);
+    }
+}
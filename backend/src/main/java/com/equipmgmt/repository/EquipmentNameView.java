@@ -0,0 +1,17 @@
+package com.equipmgmt.repository;
+
+import java.time.Instant;
+
+/**
+ * Projection used to load the autocomplete index without hydrating entities.
+ */
+public interface EquipmentNameView {
+
+    Long getId();
+
+    String getName();
+
+    String getStatus();
+
+    Instant getUpdatedAt();
+}
@@ -1,36 +1,168 @@
 package com.equipmgmt.repository;
 
 import com.equipmgmt.entity.Equipment;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * List queries go through {@link JpaSpecificationExecutor} with
+ * {@link EquipmentSpecifications}, which emits only the filters that are present.
+ */
 @Repository
-public interface EquipmentRepository extends JpaRepository<Equipment, Long> {
+public interface EquipmentRepository extends JpaRepository<Equipment, Long>,
+                                             JpaSpecificationExecutor<Equipment> {
+
+    /**
+     * Single-row lookup that treats tombstoned equipment as missing.
+     */
+    @Query("SELECT e FROM Equipment e WHERE e.id = :id AND e.deletedAt IS NULL")
+    Optional<Equipment> findActiveById(@Param("id") Long id);
+
+    /**
+     * Version probe for the rendered-response cache: one index lookup
+     * instead of loading and serializing the entity.
+     */
+    @Query("SELECT e.updatedAt FROM Equipment e WHERE e.id = :id AND e.deletedAt IS NULL")
+    Optional<Instant> findUpdatedAtById(@Param("id") Long id);
+
+    /**
+     * Streams every live equipment name for the autocomplete index.
+     * Must be consumed inside a transaction so PostgreSQL uses a cursor
+     * and honours the fetch size instead of buffering the whole table.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "5000"))
+    @Query("""
+            SELECT e.id AS id, e.name AS name, e.status AS status, e.updatedAt AS updatedAt
+            FROM Equipment e
+            WHERE e.deletedAt IS NULL
+            """)
+    Stream<EquipmentNameView> streamAllNames();
+
+    @Query("""
+            SELECT e.id AS id, e.name AS name, e.status AS status, e.updatedAt AS updatedAt
+            FROM Equipment e
+            WHERE e.id IN :ids AND e.deletedAt IS NULL
+            """)
+    List<EquipmentNameView> findNameViewsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Streams Active equipment with a cleaning date for the due-soon index.
+     * Served by idx_equipment_status_cleaned.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "5000"))
+    @Query("""
+            SELECT e.id AS id, e.name AS name, e.lastCleanedDate AS lastCleanedDate, e.updatedAt AS updatedAt
+            FROM Equipment e
+            WHERE e.status = 'Active' AND e.lastCleanedDate IS NOT NULL AND e.deletedAt IS NULL
+            """)
+    Stream<CleaningDueView> streamAllCleaningDue();
+
+    @Query("""
+            SELECT e.id AS id, e.name AS name, e.lastCleanedDate AS lastCleanedDate, e.updatedAt AS updatedAt
+            FROM Equipment e
+            WHERE e.id IN :ids
+              AND e.status = 'Active' AND e.lastCleanedDate IS NOT NULL AND e.deletedAt IS NULL
+            """)
+    List<CleaningDueView> findCleaningDueViewsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Batch variant of findActiveById for group-committed maintenance logs.
+     */
+    @Query("SELECT e FROM Equipment e WHERE e.id IN :ids AND e.deletedAt IS NULL")
+    List<Equipment> findActiveByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Tombstones the equipment in a single-row UPDATE; the maintenance
+     * history is left for the background purger.
+     */
+    @Modifying
+    @Query(
+        value = "UPDATE equipment SET deleted_at = NOW() WHERE id = :id AND deleted_at IS NULL",
+        nativeQuery = true
+    )
+    int markDeleted(@Param("id") Long id);
 
     /**
-     * Search + filter with native PostgreSQL query.
-     * Casting :search and :status explicitly to TEXT fixes the lower(bytea) error.
+     * Workflow 1 in one statement: status → Active, last_cleaned_date →
+     * the maintenance date, and the maintenance summary advanced. The
+     * "last maintained" pair follows the latest maintenance date (the newer
+     * log wins a tie), so a back-dated log only bumps the count.
      */
+    @Modifying
     @Query(
         value = """
-            SELECT * FROM equipment e
-            WHERE (:search IS NULL OR LOWER(e.name) LIKE LOWER(CONCAT('%', CAST(:search AS TEXT), '%')))
-              AND (:status IS NULL OR e.status = CAST(:status AS TEXT))
-            """,
-        countQuery = """
-            SELECT COUNT(*) FROM equipment e
-            WHERE (:search IS NULL OR LOWER(e.name) LIKE LOWER(CONCAT('%', CAST(:search AS TEXT), '%')))
-              AND (:status IS NULL OR e.status = CAST(:status AS TEXT))
+            UPDATE equipment
+            SET status                = 'Active',
+                last_cleaned_date     = :maintenanceDate,
+                maintenance_count     = maintenance_count + 1,
+                last_maintained_by    = CASE
+                                          WHEN last_maintenance_date IS NULL
+                                            OR :maintenanceDate >= last_maintenance_date
+                                          THEN :performedBy
+                                          ELSE last_maintained_by
+                                        END,
+                last_maintenance_date = GREATEST(last_maintenance_date, :maintenanceDate)
+            WHERE id = :id
             """,
         nativeQuery = true
     )
-    Page<Equipment> findBySearchAndStatus(
-            @Param("search") String search,
-            @Param("status") String status,
-            Pageable pageable
+    int applyMaintenance(
+            @Param("id") Long id,
+            @Param("maintenanceDate") LocalDate maintenanceDate,
+            @Param("performedBy") String performedBy
     );
-}
\ No newline at end of file
+
+    /**
+     * Oldest tombstones first. Served by the partial idx_equipment_tombstoned.
+     */
+    @Query(
+        value = """
+            SELECT e.id FROM equipment e
+            WHERE e.deleted_at IS NOT NULL
+            ORDER BY e.deleted_at
+            LIMIT :limit
+            """,
+        nativeQuery = true
+    )
+    List<Long> findTombstonedIds(@Param("limit") int limit);
+
+    long countByDeletedAtIsNotNull();
+
+    /**
+     * Row-locks a tombstone for the purger's final step. A new maintenance
+     * log needs KEY SHARE on this row for its foreign key, so none can be
+     * added until the purging transaction ends. Empty if not tombstoned.
+     */
+    @Query(
+        value = "SELECT id FROM equipment WHERE id = :id AND deleted_at IS NOT NULL FOR UPDATE",
+        nativeQuery = true
+    )
+    Optional<Long> lockTombstoned(@Param("id") Long id);
+
+    /**
+     * Final purge step. Only matches tombstoned rows, so the purger can
+     * never remove live equipment.
+     */
+    @Transactional
+    @Modifying
+    @Query(
+        value = "DELETE FROM equipment WHERE id = :id AND deleted_at IS NOT NULL",
+        nativeQuery = true
+    )
+    int purgeTombstoned(@Param("id") Long id);
+}
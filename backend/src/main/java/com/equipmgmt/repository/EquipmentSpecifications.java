@@ -0,0 +1,95 @@
+package com.equipmgmt.repository;
+
+import com.equipmgmt.dto.EquipmentFilter;
+import com.equipmgmt.entity.Equipment;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import org.hibernate.query.NullPrecedence;
+import org.hibernate.query.criteria.JpaOrder;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds the WHERE clause for the equipment list from an {@link EquipmentFilter},
+ * and its ORDER BY.
+ *
+ * Only the filters that are actually present become predicates, so PostgreSQL
+ * plans each filter combination on its own instead of one generic
+ * "(:param IS NULL OR ...)" plan. Every value is bound as a parameter.
+ */
+public final class EquipmentSpecifications {
+
+    private static final char LIKE_ESCAPE = '\\';
+
+    private EquipmentSpecifications() {
+    }
+
+    public static Specification<Equipment> matching(EquipmentFilter filter) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+
+            // Tombstoned rows are never visible (matches the partial indexes)
+            predicates.add(cb.isNull(root.get("deletedAt")));
+
+            if (filter.getSearch() != null) {
+                String pattern = "%" + escapeLike(filter.getSearch().toLowerCase()) + "%";
+                predicates.add(cb.like(cb.lower(root.<String>get("name")), pattern, LIKE_ESCAPE));
+            }
+            if (filter.getStatuses() != null && !filter.getStatuses().isEmpty()) {
+                predicates.add(filter.getStatuses().size() == 1
+                        ? cb.equal(root.get("status"), filter.getStatuses().get(0))
+                        : root.get("status").in(filter.getStatuses()));
+            }
+            if (filter.getTypeIds() != null && !filter.getTypeIds().isEmpty()) {
+                predicates.add(filter.getTypeIds().size() == 1
+                        ? cb.equal(root.get("type").get("id"), filter.getTypeIds().get(0))
+                        : root.get("type").get("id").in(filter.getTypeIds()));
+            }
+            if (filter.getCleanedFrom() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.<LocalDate>get("lastCleanedDate"), filter.getCleanedFrom()));
+            }
+            if (filter.getCleanedTo() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.<LocalDate>get("lastCleanedDate"), filter.getCleanedTo()));
+            }
+
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    /**
+     * ORDER BY for the list query from a whitelisted {@link Sort}, honouring
+     * each order's null handling — Spring Data applies a Pageable's sort to
+     * Criteria queries without it. Adds no predicate; the count query drops
+     * the ordering.
+     */
+    public static Specification<Equipment> orderedBy(Sort sort) {
+        return (root, query, cb) -> {
+            List<Order> orders = new ArrayList<>();
+            for (Sort.Order requested : sort) {
+                Path<?> path = root;
+                for (String part : requested.getProperty().split("\\.")) {
+                    path = path.get(part);
+                }
+                JpaOrder order = (JpaOrder) (requested.isAscending() ? cb.asc(path) : cb.desc(path));
+                orders.add(switch (requested.getNullHandling()) {
+                    case NULLS_FIRST -> order.nullPrecedence(NullPrecedence.FIRST);
+                    case NULLS_LAST  -> order.nullPrecedence(NullPrecedence.LAST);
+                    case NATIVE      -> order;
+                });
+            }
+            query.orderBy(orders);
+            return null;
+        };
+    }
+
+    private static String escapeLike(String term) {
+        return term.replace("\\", "\\\\")
+                   .replace("%", "\\%")
+                   .replace("_", "\\_");
+    }
+}
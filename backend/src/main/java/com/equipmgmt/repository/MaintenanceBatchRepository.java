@@ -0,0 +1,163 @@
+package com.equipmgmt.repository;
+
+import com.equipmgmt.dto.MaintenanceRequestDTO;
+import com.equipmgmt.repository.MaintenanceRollupRepository.LogFact;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * Set-based statements on maintenance_logs: group-committed submissions and
+ * the purger's chunked deletes.
+ *
+ * Plain JDBC because the JPA path cannot batch IDENTITY inserts. Every value
+ * is a named parameter; only the number of VALUES rows varies.
+ */
+@Repository
+@RequiredArgsConstructor
+public class MaintenanceBatchRepository {
+
+    private final NamedParameterJdbcTemplate jdbc;
+
+    /**
+     * Reserves ids up front so inserted rows can be matched to their
+     * submissions without relying on RETURNING order.
+     */
+    public List<Long> nextLogIds(int count) {
+        return jdbc.queryForList(
+                "SELECT nextval('maintenance_logs_id_seq') FROM generate_series(1, :count)",
+                new MapSqlParameterSource("count", count),
+                Long.class);
+    }
+
+    /**
+     * One JDBC batch for all rows (rewritten into multi-row INSERTs by the
+     * driver when reWriteBatchedInserts is on). Rows go in equipment id
+     * order, so the key-share locks they take on equipment follow the same
+     * order as the summary reconciler's row locks. Each row stores the type
+     * its rollup fact (same index in {@code facts}) is counted under.
+     */
+    public void insertLogs(List<Long> ids, List<MaintenanceRequestDTO> dtos,
+                           List<LogFact> facts, Instant createdAt) {
+        Timestamp created = Timestamp.from(createdAt);
+        int[] order = IntStream.range(0, dtos.size())
+                .boxed()
+                .sorted(Comparator.comparing(i -> dtos.get(i).getEquipmentId()))
+                .mapToInt(Integer::intValue)
+                .toArray();
+        SqlParameterSource[] rows = new SqlParameterSource[dtos.size()];
+        for (int r = 0; r < order.length; r++) {
+            int i = order[r];
+            MaintenanceRequestDTO dto = dtos.get(i);
+            rows[r] = new MapSqlParameterSource()
+                    .addValue("id",              ids.get(i))
+                    .addValue("equipmentId",     dto.getEquipmentId())
+                    .addValue("maintenanceDate", dto.getMaintenanceDate())
+                    .addValue("notes",           dto.getNotes())
+                    .addValue("performedBy",     dto.getPerformedBy())
+                    .addValue("typeId",          facts.get(i).typeId())
+                    .addValue("createdAt",       created);
+        }
+        jdbc.batchUpdate("""
+                INSERT INTO maintenance_logs
+                    (id, equipment_id, maintenance_date, notes, performed_by, type_id, created_at)
+                VALUES (:id, :equipmentId, :maintenanceDate, :notes, :performedBy, :typeId, :createdAt)
+                """, rows);
+    }
+
+    /**
+     * Deletes at most {@code chunkSize} logs of one equipment and returns
+     * what the rollups counted them as. Deletes nothing unless the equipment
+     * is tombstoned. Rows another purger removed first are not returned.
+     */
+    public List<LogFact> deleteChunkOfTombstoned(Long equipmentId, int chunkSize) {
+        return jdbc.query("""
+                DELETE FROM maintenance_logs
+                WHERE id IN (
+                    SELECT id FROM maintenance_logs
+                    WHERE equipment_id = :equipmentId
+                    LIMIT :chunkSize
+                )
+                AND EXISTS (
+                    SELECT 1 FROM equipment
+                    WHERE id = :equipmentId AND deleted_at IS NOT NULL
+                )
+                RETURNING maintenance_date, type_id, performed_by
+                """,
+                new MapSqlParameterSource("equipmentId", equipmentId).addValue("chunkSize", chunkSize),
+                (rs, i) -> new LogFact(equipmentId, rs.getLong("type_id"),
+                        rs.getObject("maintenance_date", LocalDate.class), rs.getString("performed_by")));
+    }
+
+    /** Per-equipment effect of one batch: the last submitted date and the latest-dated log. */
+    public record MaintainedEquipment(LocalDate cleanedDate, int logCount,
+                                      LocalDate latestDate, String latestBy) {
+
+        public static MaintainedEquipment of(MaintenanceRequestDTO dto) {
+            return new MaintainedEquipment(dto.getMaintenanceDate(), 1,
+                    dto.getMaintenanceDate(), dto.getPerformedBy());
+        }
+
+        /** Folds in a log submitted after this one. */
+        public MaintainedEquipment then(MaintainedEquipment next) {
+            boolean nextIsLatest = !next.latestDate.isBefore(latestDate);
+            return new MaintainedEquipment(next.cleanedDate, logCount + next.logCount,
+                    nextIsLatest ? next.latestDate : latestDate,
+                    nextIsLatest ? next.latestBy : latestBy);
+        }
+    }
+
+    /**
+     * Workflow 1 for many equipment in one UPDATE: status → Active,
+     * last_cleaned_date → the given date, and the maintenance summary
+     * advanced as in EquipmentRepository#applyMaintenance. Pass a sorted map
+     * so concurrent batches lock rows in the same order.
+     */
+    public int markMaintained(Map<Long, MaintainedEquipment> maintained) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        StringBuilder values = new StringBuilder();
+        int i = 0;
+        for (Map.Entry<Long, MaintainedEquipment> entry : maintained.entrySet()) {
+            if (i > 0) {
+                values.append(", ");
+            }
+            values.append("(:id").append(i)
+                  .append(", CAST(:cleaned").append(i).append(" AS DATE)")
+                  .append(", :count").append(i)
+                  .append(", CAST(:latestDate").append(i).append(" AS DATE)")
+                  .append(", CAST(:latestBy").append(i).append(" AS VARCHAR))");
+            MaintainedEquipment m = entry.getValue();
+            params.addValue("id" + i,         entry.getKey());
+            params.addValue("cleaned" + i,    m.cleanedDate());
+            params.addValue("count" + i,      m.logCount());
+            params.addValue("latestDate" + i, m.latestDate());
+            params.addValue("latestBy" + i,   m.latestBy());
+            i++;
+        }
+        return jdbc.update("""
+                UPDATE equipment e
+                SET status                = 'Active',
+                    last_cleaned_date     = v.cleaned,
+                    maintenance_count     = e.maintenance_count + v.log_count,
+                    last_maintained_by    = CASE
+                                              WHEN e.last_maintenance_date IS NULL
+                                                OR v.latest_date >= e.last_maintenance_date
+                                              THEN v.latest_by
+                                              ELSE e.last_maintained_by
+                                            END,
+                    last_maintenance_date = GREATEST(e.last_maintenance_date, v.latest_date)
+                FROM (VALUES %s) AS v(id, cleaned, log_count, latest_date, latest_by)
+                WHERE e.id = v.id
+                """.formatted(values), params);
+    }
+}
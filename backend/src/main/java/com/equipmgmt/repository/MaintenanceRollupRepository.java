@@ -0,0 +1,333 @@
+package com.equipmgmt.repository;
+
+import com.equipmgmt.dto.MaintenanceDailyCountDTO;
+import com.equipmgmt.dto.MaintenanceIntervalDTO;
+import com.equipmgmt.dto.TechnicianWorkloadDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * Maintenance rollup tables: incremental upserts on every log, retraction
+ * as the purger deletes logs, range reads for the analytics endpoints, and
+ * the per-chunk rebuild statements used by the backfill. The daily tables
+ * count every row in maintenance_logs under its own type_id, so they follow
+ * the table exactly; per-equipment stats cover live equipment only.
+ *
+ * Increments are pre-aggregated per key and applied in key order, so one
+ * INSERT ... ON CONFLICT never touches a row twice and concurrent writers
+ * lock rollup rows in the same order.
+ */
+@Repository
+@RequiredArgsConstructor
+public class MaintenanceRollupRepository {
+
+    private final NamedParameterJdbcTemplate jdbc;
+
+    /**
+     * One maintenance log, as far as the rollups are concerned. typeId is
+     * the type stored on the log (maintenance_logs.type_id), which every
+     * path — increment, retraction and rebuild — counts it under.
+     */
+    public record LogFact(Long equipmentId, Long typeId, LocalDate day, String performedBy) {
+    }
+
+    // -------------------------------------------------------
+    // Incremental maintenance
+    // -------------------------------------------------------
+    public void increment(Collection<LogFact> facts) {
+        if (facts.isEmpty()) {
+            return;
+        }
+        Map<TypeBucket, Long>       byType       = new TreeMap<>(TypeBucket.ORDER);
+        Map<TechnicianBucket, Long> byTechnician = new TreeMap<>(TechnicianBucket.ORDER);
+        Map<Long, EquipmentStats>   byEquipment  = new TreeMap<>();
+
+        for (LogFact fact : facts) {
+            byType.merge(new TypeBucket(fact.day(), fact.typeId()), 1L, Long::sum);
+            byTechnician.merge(new TechnicianBucket(fact.day(), fact.performedBy()), 1L, Long::sum);
+            byEquipment.merge(fact.equipmentId(), new EquipmentStats(1, fact.day(), fact.day()),
+                    EquipmentStats::plus);
+        }
+
+        upsert("""
+                INSERT INTO maintenance_daily_by_type (day, type_id, log_count)
+                VALUES %s
+                ON CONFLICT (day, type_id)
+                DO UPDATE SET log_count = maintenance_daily_by_type.log_count + EXCLUDED.log_count
+                """, "(CAST(:p%1$d_0 AS DATE), :p%1$d_1, :p%1$d_2)",
+                byType.entrySet().stream()
+                        .map(e -> List.<Object>of(e.getKey().day(), e.getKey().typeId(), e.getValue()))
+                        .toList());
+
+        upsert("""
+                INSERT INTO maintenance_daily_by_technician (day, performed_by, log_count)
+                VALUES %s
+                ON CONFLICT (day, performed_by)
+                DO UPDATE SET log_count = maintenance_daily_by_technician.log_count + EXCLUDED.log_count
+                """, "(CAST(:p%1$d_0 AS DATE), :p%1$d_1, :p%1$d_2)",
+                byTechnician.entrySet().stream()
+                        .map(e -> List.<Object>of(e.getKey().day(), e.getKey().performedBy(), e.getValue()))
+                        .toList());
+
+        upsert("""
+                INSERT INTO equipment_maintenance_stats AS s (equipment_id, log_count, first_date, last_date)
+                VALUES %s
+                ON CONFLICT (equipment_id)
+                DO UPDATE SET log_count  = s.log_count + EXCLUDED.log_count,
+                              first_date = LEAST(s.first_date, EXCLUDED.first_date),
+                              last_date  = GREATEST(s.last_date, EXCLUDED.last_date)
+                """, "(:p%1$d_0, :p%1$d_1, CAST(:p%1$d_2 AS DATE), CAST(:p%1$d_3 AS DATE))",
+                byEquipment.entrySet().stream()
+                        .map(e -> List.<Object>of(e.getKey(), e.getValue().count(),
+                                e.getValue().first(), e.getValue().last()))
+                        .toList());
+    }
+
+    /**
+     * Takes purged logs out of the daily rollups, in the purge chunk's
+     * transaction, and drops buckets left empty. Called with the rows a
+     * DELETE ... RETURNING actually removed, so a log is retracted exactly
+     * once. The DELETE's ROW EXCLUSIVE lock on maintenance_logs already
+     * orders the chunk against a running rebuild chunk (SHARE).
+     *
+     * Per-equipment stats are left alone: the equipment is tombstoned, its
+     * stats are no longer readable, and the row goes with the equipment.
+     */
+    public void retract(Collection<LogFact> facts) {
+        if (facts.isEmpty()) {
+            return;
+        }
+        Map<TypeBucket, Long>       byType       = new TreeMap<>(TypeBucket.ORDER);
+        Map<TechnicianBucket, Long> byTechnician = new TreeMap<>(TechnicianBucket.ORDER);
+        for (LogFact fact : facts) {
+            byType.merge(new TypeBucket(fact.day(), fact.typeId()), 1L, Long::sum);
+            byTechnician.merge(new TechnicianBucket(fact.day(), fact.performedBy()), 1L, Long::sum);
+        }
+
+        // Key order, as in increment(), so writers lock rollup rows alike
+        MapSqlParameterSource[] typeRows = byType.entrySet().stream()
+                .map(e -> new MapSqlParameterSource("n", e.getValue())
+                        .addValue("day", e.getKey().day())
+                        .addValue("typeId", e.getKey().typeId()))
+                .toArray(MapSqlParameterSource[]::new);
+        MapSqlParameterSource[] technicianRows = byTechnician.entrySet().stream()
+                .map(e -> new MapSqlParameterSource("n", e.getValue())
+                        .addValue("day", e.getKey().day())
+                        .addValue("performedBy", e.getKey().performedBy()))
+                .toArray(MapSqlParameterSource[]::new);
+
+        jdbc.batchUpdate("""
+                UPDATE maintenance_daily_by_type SET log_count = log_count - :n
+                WHERE day = :day AND type_id = :typeId
+                """, typeRows);
+        jdbc.batchUpdate("""
+                DELETE FROM maintenance_daily_by_type
+                WHERE day = :day AND type_id = :typeId AND log_count <= 0
+                """, typeRows);
+        jdbc.batchUpdate("""
+                UPDATE maintenance_daily_by_technician SET log_count = log_count - :n
+                WHERE day = :day AND performed_by = :performedBy
+                """, technicianRows);
+        jdbc.batchUpdate("""
+                DELETE FROM maintenance_daily_by_technician
+                WHERE day = :day AND performed_by = :performedBy AND log_count <= 0
+                """, technicianRows);
+    }
+
+    // -------------------------------------------------------
+    // Reads — one index range scan over the buckets
+    // -------------------------------------------------------
+    public List<MaintenanceDailyCountDTO> findDailyByType(LocalDate from, LocalDate to) {
+        return jdbc.query("""
+                SELECT r.day, r.type_id, t.name AS type_name, r.log_count
+                FROM maintenance_daily_by_type r
+                JOIN equipment_types t ON t.id = r.type_id
+                WHERE r.day BETWEEN :from AND :to
+                ORDER BY r.day, t.name
+                """,
+                new MapSqlParameterSource("from", from).addValue("to", to),
+                (rs, i) -> MaintenanceDailyCountDTO.builder()
+                        .day(rs.getObject("day", LocalDate.class))
+                        .typeId(rs.getLong("type_id"))
+                        .typeName(rs.getString("type_name"))
+                        .logCount(rs.getLong("log_count"))
+                        .build());
+    }
+
+    public List<TechnicianWorkloadDTO> findTechnicianWorkload(LocalDate from, LocalDate to) {
+        return jdbc.query("""
+                SELECT performed_by, SUM(log_count) AS log_count
+                FROM maintenance_daily_by_technician
+                WHERE day BETWEEN :from AND :to
+                GROUP BY performed_by
+                ORDER BY log_count DESC, performed_by
+                """,
+                new MapSqlParameterSource("from", from).addValue("to", to),
+                (rs, i) -> TechnicianWorkloadDTO.builder()
+                        .performedBy(rs.getString("performed_by"))
+                        .logCount(rs.getLong("log_count"))
+                        .build());
+    }
+
+    public Optional<MaintenanceIntervalDTO> findEquipmentStats(Long equipmentId) {
+        return jdbc.query("""
+                SELECT equipment_id, log_count, first_date, last_date
+                FROM equipment_maintenance_stats
+                WHERE equipment_id = :equipmentId
+                """,
+                new MapSqlParameterSource("equipmentId", equipmentId),
+                (rs, i) -> {
+                    long count      = rs.getLong("log_count");
+                    LocalDate first = rs.getObject("first_date", LocalDate.class);
+                    LocalDate last  = rs.getObject("last_date", LocalDate.class);
+                    return MaintenanceIntervalDTO.builder()
+                            .equipmentId(rs.getLong("equipment_id"))
+                            .logCount(count)
+                            .firstDate(first)
+                            .lastDate(last)
+                            .meanDaysBetween(count < 2 ? null
+                                    : (double) (last.toEpochDay() - first.toEpochDay()) / (count - 1))
+                            .build();
+                })
+                .stream()
+                .findFirst();
+    }
+
+    // -------------------------------------------------------
+    // Backfill — each call runs inside the caller's chunk
+    // transaction, after lockLogsForRebuild()
+    // -------------------------------------------------------
+    /**
+     * Waits for in-flight log writers and holds off new ones until the
+     * chunk commits, so the recount and later increments never overlap.
+     */
+    public void lockLogsForRebuild() {
+        jdbc.getJdbcTemplate().execute("LOCK TABLE maintenance_logs IN SHARE MODE");
+    }
+
+    /** Date and equipment-id span of maintenance_logs; empty when there are no logs. */
+    public Optional<LogBounds> findLogBounds() {
+        return jdbc.getJdbcTemplate().query("""
+                SELECT MIN(maintenance_date) AS first_day, MAX(maintenance_date) AS last_day,
+                       MIN(equipment_id) AS first_id, MAX(equipment_id) AS last_id
+                FROM maintenance_logs
+                """,
+                (rs, i) -> rs.getObject("first_day") == null ? null : new LogBounds(
+                        rs.getObject("first_day", LocalDate.class),
+                        rs.getObject("last_day", LocalDate.class),
+                        rs.getLong("first_id"),
+                        rs.getLong("last_id")))
+                .stream()
+                .filter(Objects::nonNull)
+                .findFirst();
+    }
+
+    public record LogBounds(LocalDate firstDay, LocalDate lastDay, long firstEquipmentId, long lastEquipmentId) {
+    }
+
+    /** Drops daily buckets and stats that no surviving log falls into. */
+    public void deleteOutside(LogBounds bounds) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("fromDay", bounds.firstDay()).addValue("toDay", bounds.lastDay())
+                .addValue("fromId", bounds.firstEquipmentId()).addValue("toId", bounds.lastEquipmentId());
+        jdbc.update("DELETE FROM maintenance_daily_by_type WHERE day < :fromDay OR day > :toDay", params);
+        jdbc.update("DELETE FROM maintenance_daily_by_technician WHERE day < :fromDay OR day > :toDay", params);
+        jdbc.update("DELETE FROM equipment_maintenance_stats WHERE equipment_id < :fromId OR equipment_id > :toId", params);
+    }
+
+    public void deleteAll() {
+        jdbc.getJdbcTemplate().update("DELETE FROM maintenance_daily_by_type");
+        jdbc.getJdbcTemplate().update("DELETE FROM maintenance_daily_by_technician");
+        jdbc.getJdbcTemplate().update("DELETE FROM equipment_maintenance_stats");
+    }
+
+    /** Counts every log still present, tombstoned equipment included; see retract. */
+    public void rebuildDays(LocalDate fromDay, LocalDate toDay) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("fromDay", fromDay).addValue("toDay", toDay);
+        jdbc.update("DELETE FROM maintenance_daily_by_type WHERE day BETWEEN :fromDay AND :toDay", params);
+        jdbc.update("""
+                INSERT INTO maintenance_daily_by_type (day, type_id, log_count)
+                SELECT l.maintenance_date, l.type_id, COUNT(*)
+                FROM maintenance_logs l
+                WHERE l.maintenance_date BETWEEN :fromDay AND :toDay
+                GROUP BY l.maintenance_date, l.type_id
+                """, params);
+        jdbc.update("DELETE FROM maintenance_daily_by_technician WHERE day BETWEEN :fromDay AND :toDay", params);
+        jdbc.update("""
+                INSERT INTO maintenance_daily_by_technician (day, performed_by, log_count)
+                SELECT l.maintenance_date, l.performed_by, COUNT(*)
+                FROM maintenance_logs l
+                WHERE l.maintenance_date BETWEEN :fromDay AND :toDay
+                GROUP BY l.maintenance_date, l.performed_by
+                """, params);
+    }
+
+    /**
+     * Tombstoned equipment is skipped; its stats row goes with the rest of
+     * the range. Never inserting for it also keeps this chunk out of the
+     * purger's way.
+     */
+    public void rebuildEquipment(long fromId, long toId) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("fromId", fromId).addValue("toId", toId);
+        jdbc.update("DELETE FROM equipment_maintenance_stats WHERE equipment_id BETWEEN :fromId AND :toId", params);
+        jdbc.update("""
+                INSERT INTO equipment_maintenance_stats (equipment_id, log_count, first_date, last_date)
+                SELECT l.equipment_id, COUNT(*), MIN(l.maintenance_date), MAX(l.maintenance_date)
+                FROM maintenance_logs l
+                JOIN equipment e ON e.id = l.equipment_id AND e.deleted_at IS NULL
+                WHERE l.equipment_id BETWEEN :fromId AND :toId
+                GROUP BY l.equipment_id
+                """, params);
+    }
+
+    // -------------------------------------------------------
+    // Helpers
+    // -------------------------------------------------------
+    /** Expands {@code rowTemplate} once per row into a multi-row VALUES list. */
+    private void upsert(String sql, String rowTemplate, List<List<Object>> rows) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        StringBuilder values = new StringBuilder();
+        for (int i = 0; i < rows.size(); i++) {
+            if (i > 0) {
+                values.append(", ");
+            }
+            values.append(rowTemplate.formatted(i));
+            List<Object> row = rows.get(i);
+            for (int c = 0; c < row.size(); c++) {
+                params.addValue("p" + i + "_" + c, row.get(c));
+            }
+        }
+        jdbc.update(sql.formatted(values), params);
+    }
+
+    private record TypeBucket(LocalDate day, Long typeId) {
+        static final Comparator<TypeBucket> ORDER =
+                Comparator.comparing(TypeBucket::day).thenComparing(TypeBucket::typeId);
+    }
+
+    private record TechnicianBucket(LocalDate day, String performedBy) {
+        static final Comparator<TechnicianBucket> ORDER =
+                Comparator.comparing(TechnicianBucket::day).thenComparing(TechnicianBucket::performedBy);
+    }
+
+    private record EquipmentStats(long count, LocalDate first, LocalDate last) {
+        EquipmentStats plus(EquipmentStats other) {
+            return new EquipmentStats(count + other.count,
+                    first.isBefore(other.first) ? first : other.first,
+                    last.isAfter(other.last) ? last : other.last);
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.equipmgmt.service;
+
+import java.time.LocalDate;
+
+/**
+ * Published once per equipment (and due date) when it enters the reminder
+ * horizon. Listen with {@code @EventListener} to route reminders elsewhere.
+ */
+public record CleaningDueEvent(Long equipmentId, String name, LocalDate dueDate, long daysUntilDue) {
+}
@@ -0,0 +1,154 @@
+package com.equipmgmt.service;
+
+import com.equipmgmt.cache.CleaningDueIndex;
+import com.equipmgmt.dto.DueEquipmentDTO;
+import com.equipmgmt.exception.InvalidRequestException;
+import com.equipmgmt.repository.CleaningReminderRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Due-soon queries and cleaning reminders, both answered from
+ * {@link CleaningDueIndex} — neither rescans the equipment table.
+ * Which reminders went out is kept in the database, not in memory.
+ */
+@Slf4j
+@Service
+@Lazy(false)
+public class CleaningScheduleService {
+
+    private static final int MAX_WITHIN_DAYS = 365;
+    private static final int MAX_LIMIT       = 1000;
+    private static final int CLAIM_CHUNK     = 1000;
+
+    private final CleaningDueIndex           cleaningDueIndex;
+    private final CleaningReminderRepository reminderRepository;
+    private final ApplicationEventPublisher  eventPublisher;
+    private final TransactionTemplate        senderTx;
+    private final int                        reminderLeadDays;
+    private final Counter                    remindersEmitted;
+
+    public CleaningScheduleService(
+            CleaningDueIndex cleaningDueIndex,
+            CleaningReminderRepository reminderRepository,
+            ApplicationEventPublisher eventPublisher,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${app.cleaning.reminder.lead-days:7}") int reminderLeadDays) {
+        this.cleaningDueIndex   = cleaningDueIndex;
+        this.reminderRepository = reminderRepository;
+        this.eventPublisher     = eventPublisher;
+        this.senderTx           = new TransactionTemplate(transactionManager);
+        this.reminderLeadDays   = reminderLeadDays;
+        this.remindersEmitted   = meterRegistry.counter("cleaning.reminders.emitted");
+    }
+
+    // -------------------------------------------------------
+    // READ — Active equipment due within N days (incl. overdue)
+    // -------------------------------------------------------
+    public List<DueEquipmentDTO> getDue(int withinDays, int limit) {
+        if (withinDays < 0 || withinDays > MAX_WITHIN_DAYS) {
+            throw new InvalidRequestException(
+                "withinDays must be between 0 and " + MAX_WITHIN_DAYS + ".");
+        }
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new InvalidRequestException(
+                "limit must be between 1 and " + MAX_LIMIT + ".");
+        }
+        LocalDate today = LocalDate.now();
+        return cleaningDueIndex.dueOnOrBefore(today.plusDays(withinDays), limit)
+                .stream()
+                .map(due -> DueEquipmentDTO.builder()
+                        .id(due.id())
+                        .name(due.name())
+                        .lastCleanedDate(due.lastCleanedDate())
+                        .dueDate(due.dueDate())
+                        .daysUntilDue(ChronoUnit.DAYS.between(today, due.dueDate()))
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    // -------------------------------------------------------
+    // Reminder engine
+    // One instance sends per run (pg advisory lock). It scans
+    // only the index slice that entered the horizon since the
+    // persisted watermark, plus entries whose due date moved,
+    // and claims each equipment / due date in
+    // cleaning_reminders before announcing it — so reminders
+    // go out once across replicas and restarts. Re-cleaned
+    // equipment gets a new due date and is announced again
+    // when it next comes due.
+    // -------------------------------------------------------
+    @Scheduled(fixedDelayString = "${app.cleaning.reminder.interval-ms:900000}",
+               initialDelayString = "${app.cleaning.reminder.initial-delay-ms:60000}")
+    public void emitReminders() {
+        LocalDate today   = LocalDate.now();
+        LocalDate horizon = today.plusDays(reminderLeadDays);
+
+        List<CleaningDueIndex.Due> moved = new ArrayList<>();
+        List<CleaningDueIndex.Due> claimed;
+        try {
+            claimed = senderTx.execute(status -> claimReminders(horizon, moved));
+        } catch (RuntimeException e) {
+            // Keep the moved entries for the next run; the range scan repeats by itself
+            cleaningDueIndex.markChanged(moved.stream().map(CleaningDueIndex.Due::id).toList());
+            log.warn("Cleaning reminder run failed: {}", e.getMessage());
+            return;
+        }
+
+        // Announced only once the claims are committed
+        for (CleaningDueIndex.Due due : claimed) {
+            long daysUntilDue = ChronoUnit.DAYS.between(today, due.dueDate());
+            log.info("Cleaning due: equipment {} '{}' on {} ({} days)",
+                    due.id(), due.name(), due.dueDate(), daysUntilDue);
+            eventPublisher.publishEvent(
+                    new CleaningDueEvent(due.id(), due.name(), due.dueDate(), daysUntilDue));
+            remindersEmitted.increment();
+        }
+    }
+
+    private List<CleaningDueIndex.Due> claimReminders(LocalDate horizon, List<CleaningDueIndex.Due> moved) {
+        if (!reminderRepository.tryLockSender()) {
+            return List.of();
+        }
+        LocalDate watermark = reminderRepository.findWatermark().orElse(null);
+        moved.addAll(cleaningDueIndex.drainChanged(horizon));
+
+        Map<Long, CleaningDueIndex.Due> candidates = new LinkedHashMap<>();
+        cleaningDueIndex.dueBetween(watermark, horizon).forEach(due -> candidates.put(due.id(), due));
+        moved.forEach(due -> candidates.put(due.id(), due));
+
+        List<CleaningDueIndex.Due> won = new ArrayList<>();
+        List<CleaningDueIndex.Due> all = new ArrayList<>(candidates.values());
+        for (int from = 0; from < all.size(); from += CLAIM_CHUNK) {
+            List<CleaningDueIndex.Due> chunk = all.subList(from, Math.min(from + CLAIM_CHUNK, all.size()));
+            Map<Long, LocalDate> dueDates = new TreeMap<>();
+            chunk.forEach(due -> dueDates.put(due.id(), due.dueDate()));
+            Set<Long> ids = reminderRepository.claim(dueDates);
+            chunk.stream().filter(due -> ids.contains(due.id())).forEach(won::add);
+        }
+        // Never moves back, e.g. when lead-days is lowered
+        if (watermark == null || horizon.isAfter(watermark)) {
+            reminderRepository.saveWatermark(horizon);
+        }
+        return won;
+    }
+}
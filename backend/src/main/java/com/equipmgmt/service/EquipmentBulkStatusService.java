@@ -0,0 +1,191 @@
+package com.equipmgmt.service;
+
+import com.equipmgmt.cache.CacheInvalidationBus;
+import com.equipmgmt.dto.BulkStatusRequestDTO;
+import com.equipmgmt.dto.BulkStatusResultDTO;
+import com.equipmgmt.dto.EquipmentFilter;
+import com.equipmgmt.entity.Equipment;
+import com.equipmgmt.exception.InvalidRequestException;
+import com.equipmgmt.repository.EquipmentBulkRepository;
+import com.equipmgmt.repository.EquipmentBulkRepository.StatusTransitionRow;
+import com.equipmgmt.repository.EquipmentSpecifications;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * PATCH /api/equipment/status — moves many equipment rows to one status.
+ *
+ * The selection (explicit ids, or the list endpoint's filter walked by
+ * keyset) is processed in chunks of {@code chunk-size}; each chunk is one
+ * set-based UPDATE in its own transaction via
+ * {@link EquipmentService#transitionStatusChunk}, so a large transition
+ * never holds thousands of row locks at once. Chunks already committed stay
+ * committed if a later one fails.
+ *
+ * A chunk is never larger than the invalidation bus's storm threshold: each
+ * updated row publishes its own {@code equipment:<id>} key, and a larger
+ * chunk would collapse into the {@code equipment:} prefix and make every
+ * instance rebuild its equipment indexes instead of reloading those rows.
+ *
+ * Rows that cannot take the target status — unknown ids, or activation
+ * without a cleaning in the last 30 days — are reported, not fatal.
+ */
+@Slf4j
+@Service
+public class EquipmentBulkStatusService {
+
+    private static final int MAX_IDS                 = 10_000;
+    private static final int MAX_REPORTED_REJECTIONS = 1_000;
+
+    private final EquipmentService        equipmentService;
+    private final EquipmentBulkRepository equipmentBulkRepository;
+    private final int                     chunkSize;
+
+    public EquipmentBulkStatusService(
+            EquipmentService equipmentService,
+            EquipmentBulkRepository equipmentBulkRepository,
+            CacheInvalidationBus invalidationBus,
+            @Value("${app.equipment.bulk-status.chunk-size:200}") int chunkSize) {
+        this.equipmentService        = equipmentService;
+        this.equipmentBulkRepository = equipmentBulkRepository;
+        this.chunkSize               = Math.min(chunkSize, invalidationBus.getStormThreshold());
+    }
+
+    public BulkStatusResultDTO transition(BulkStatusRequestDTO request) {
+        boolean byIds    = request.getIds() != null;
+        boolean byFilter = request.getFilter() != null;
+        if (byIds == byFilter) {
+            throw new InvalidRequestException("Provide exactly one of ids or filter.");
+        }
+
+        Tally tally = new Tally(request.getTargetStatus());
+        if (byIds) {
+            transitionIds(request.getIds(), tally);
+        } else {
+            transitionFilter(request.getFilter(), tally);
+        }
+
+        log.info("Bulk status → {}: {} updated, {} unchanged, {} rejected",
+                tally.target, tally.updated, tally.unchanged, tally.rejectedCount);
+        return BulkStatusResultDTO.builder()
+                .targetStatus(tally.target)
+                .updated(tally.updated)
+                .unchanged(tally.unchanged)
+                .rejectedCount(tally.rejectedCount)
+                .rejected(tally.rejected)
+                .build();
+    }
+
+    // -------------------------------------------------------
+    // Selection
+    // -------------------------------------------------------
+    private void transitionIds(List<Long> requested, Tally tally) {
+        List<Long> ids = requested.stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .sorted()
+                .toList();
+        if (ids.isEmpty()) {
+            throw new InvalidRequestException("ids must not be empty.");
+        }
+        if (ids.size() > MAX_IDS) {
+            throw new InvalidRequestException(
+                "At most " + MAX_IDS + " ids per request; use a filter for larger sets.");
+        }
+
+        for (int from = 0; from < ids.size(); from += chunkSize) {
+            List<Long> chunk = ids.subList(from, Math.min(from + chunkSize, ids.size()));
+            List<StatusTransitionRow> rows = equipmentService.transitionStatusChunk(chunk, tally.target);
+            tally.add(rows);
+            tally.rejectAbsent(chunk, rows, "Equipment not found.");
+        }
+    }
+
+    private void transitionFilter(EquipmentFilter filter, Tally tally) {
+        EquipmentFilter normalized = equipmentService.normalize(filter);
+        if (normalized.getSearch() == null
+                && normalized.getStatuses().isEmpty()
+                && normalized.getTypeIds().isEmpty()
+                && normalized.getCleanedFrom() == null
+                && normalized.getCleanedTo() == null) {
+            throw new InvalidRequestException(
+                "filter must contain at least one criterion; use ids to select equipment explicitly.");
+        }
+        Specification<Equipment> spec = EquipmentSpecifications.matching(normalized);
+
+        long afterId = 0;
+        List<Long> chunk;
+        while (!(chunk = equipmentBulkRepository.findIdsAfter(spec, afterId, chunkSize)).isEmpty()) {
+            List<StatusTransitionRow> rows = equipmentService.transitionMatchingChunk(chunk, spec, tally.target);
+            tally.add(rows);
+            // Changed by another writer between the keyset read and the lock
+            tally.rejectAbsent(chunk, rows, "Equipment no longer matches the filter.");
+            afterId = chunk.get(chunk.size() - 1);
+        }
+    }
+
+    // -------------------------------------------------------
+    // Result accumulation
+    // -------------------------------------------------------
+    private static final class Tally {
+
+        final String target;
+        final LocalDate today = LocalDate.now();
+        final List<BulkStatusResultDTO.Rejection> rejected = new ArrayList<>();
+        long updated;
+        long unchanged;
+        long rejectedCount;
+
+        Tally(String target) {
+            this.target = target;
+        }
+
+        void add(List<StatusTransitionRow> rows) {
+            for (StatusTransitionRow row : rows) {
+                if (row.updated()) {
+                    updated++;
+                } else if (target.equals(row.status())) {
+                    unchanged++;
+                } else {
+                    reject(row.id(), activationReason(row.lastCleanedDate()));
+                }
+            }
+        }
+
+        /** Rejects every id of {@code chunk} that has no row in {@code rows}. */
+        void rejectAbsent(List<Long> chunk, List<StatusTransitionRow> rows, String reason) {
+            Set<Long> found = new HashSet<>();
+            rows.forEach(row -> found.add(row.id()));
+            chunk.stream()
+                    .filter(id -> !found.contains(id))
+                    .forEach(id -> reject(id, reason));
+        }
+
+        void reject(Long id, String reason) {
+            rejectedCount++;
+            if (rejected.size() < MAX_REPORTED_REJECTIONS) {
+                rejected.add(BulkStatusResultDTO.Rejection.builder().id(id).reason(reason).build());
+            }
+        }
+
+        // Only the Active rule can keep a live row from changing status
+        private String activationReason(LocalDate lastCleanedDate) {
+            if (lastCleanedDate == null) {
+                return "Last Cleaned Date is required when activating equipment.";
+            }
+            return "Last Cleaned Date is " + ChronoUnit.DAYS.between(lastCleanedDate, today)
+                    + " days ago; equipment must have been cleaned within the last "
+                    + EquipmentService.MAX_DAYS_SINCE_CLEANING + " days to be marked Active.";
+        }
+    }
+}
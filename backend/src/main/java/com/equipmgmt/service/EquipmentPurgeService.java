@@ -0,0 +1,138 @@
+package com.equipmgmt.service;
+
+import com.equipmgmt.repository.EquipmentRepository;
+import com.equipmgmt.repository.MaintenanceBatchRepository;
+import com.equipmgmt.repository.MaintenanceRollupRepository;
+import com.equipmgmt.repository.MaintenanceRollupRepository.LogFact;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Background purger for tombstoned equipment.
+ *
+ * Each run picks the oldest tombstones, drains their maintenance logs in
+ * chunks of {@code chunkSize} rows (one short transaction per chunk, with a
+ * pause between chunks), then deletes the equipment row itself. Each chunk
+ * takes the logs it deleted out of the analytics rollups in the same
+ * transaction, so the rollups shrink with maintenance_logs and the delete
+ * request itself does no history-sized work.
+ *
+ * All progress lives in the database — a tombstone stays until its row is
+ * gone — so a restart simply resumes with whatever is left.
+ */
+@Slf4j
+@Service
+@Lazy(false)
+public class EquipmentPurgeService {
+
+    private final EquipmentRepository         equipmentRepository;
+    private final MaintenanceBatchRepository  maintenanceBatchRepository;
+    private final MaintenanceRollupRepository rollupRepository;
+    private final TransactionTemplate         purgeTx;
+
+    private final int  chunkSize;
+    private final int  batchSize;
+    private final long throttleMs;
+
+    private final Counter    logsPurged;
+    private final Counter    equipmentPurged;
+    private final AtomicLong pendingTombstones = new AtomicLong();
+
+    public EquipmentPurgeService(
+            EquipmentRepository equipmentRepository,
+            MaintenanceBatchRepository maintenanceBatchRepository,
+            MaintenanceRollupRepository rollupRepository,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${app.purge.chunk-size:1000}")  int  chunkSize,
+            @Value("${app.purge.batch-size:10}")    int  batchSize,
+            @Value("${app.purge.throttle-ms:50}")   long throttleMs) {
+        this.equipmentRepository        = equipmentRepository;
+        this.maintenanceBatchRepository = maintenanceBatchRepository;
+        this.rollupRepository           = rollupRepository;
+        this.purgeTx                    = new TransactionTemplate(transactionManager);
+        this.chunkSize  = chunkSize;
+        this.batchSize  = batchSize;
+        this.throttleMs = throttleMs;
+
+        this.logsPurged      = meterRegistry.counter("equipment.purge.logs.deleted");
+        this.equipmentPurged = meterRegistry.counter("equipment.purge.equipment.deleted");
+        meterRegistry.gauge("equipment.purge.pending", pendingTombstones);
+    }
+
+    @Scheduled(fixedDelayString = "${app.purge.interval-ms:10000}")
+    public void purgeTombstoned() {
+        pendingTombstones.set(equipmentRepository.countByDeletedAtIsNotNull());
+        List<Long> ids = equipmentRepository.findTombstonedIds(batchSize);
+
+        for (Long id : ids) {
+            if (!purgeOne(id)) {
+                return; // interrupted — resume on next run
+            }
+        }
+    }
+
+    private boolean purgeOne(Long equipmentId) {
+        long total = 0;
+        int deleted;
+        do {
+            deleted = purgeTx.execute(status -> purgeLogChunk(equipmentId));
+            total += deleted;
+
+            if (deleted == chunkSize && !pause()) {
+                log.info("Purge of equipment {} interrupted after {} logs", equipmentId, total);
+                return false;
+            }
+        } while (deleted == chunkSize);
+
+        Boolean removed = purgeTx.execute(status -> {
+            if (equipmentRepository.lockTombstoned(equipmentId).isEmpty()) {
+                return false;
+            }
+            // Logs added after the last chunk; the row lock keeps out new ones
+            int n;
+            do {
+                n = purgeLogChunk(equipmentId);
+            } while (n == chunkSize);
+            return equipmentRepository.purgeTombstoned(equipmentId) > 0;
+        });
+        // False when another instance purged it first; the gauge only counts our removals
+        if (Boolean.TRUE.equals(removed)) {
+            equipmentPurged.increment();
+            pendingTombstones.decrementAndGet();
+            log.info("Purged equipment {} ({} maintenance logs)", equipmentId, total);
+        }
+        return true;
+    }
+
+    /** One chunk of logs deleted and retracted from the rollups; run inside purgeTx. */
+    private int purgeLogChunk(Long equipmentId) {
+        List<LogFact> purged = maintenanceBatchRepository.deleteChunkOfTombstoned(equipmentId, chunkSize);
+        rollupRepository.retract(purged);
+        logsPurged.increment(purged.size());
+        return purged.size();
+    }
+
+    private boolean pause() {
+        if (throttleMs <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(throttleMs);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -1,63 +1,95 @@
 package com.equipmgmt.service;
 
+import com.equipmgmt.cache.CacheInvalidationBus;
+import com.equipmgmt.cache.CacheKeys;
+import com.equipmgmt.cache.EquipmentNameIndex;
+import com.equipmgmt.dto.EquipmentFilter;
 import com.equipmgmt.dto.EquipmentRequestDTO;
 import com.equipmgmt.dto.EquipmentResponseDTO;
+import com.equipmgmt.dto.EquipmentSuggestionDTO;
 import com.equipmgmt.dto.PagedResponseDTO;
 import com.equipmgmt.entity.Equipment;
 import com.equipmgmt.entity.EquipmentType;
 import com.equipmgmt.exception.BusinessRuleException;
+import com.equipmgmt.exception.InvalidRequestException;
 import com.equipmgmt.exception.ResourceNotFoundException;
+import com.equipmgmt.repository.EquipmentBulkRepository;
+import com.equipmgmt.repository.EquipmentBulkRepository.StatusTransitionRow;
 import com.equipmgmt.repository.EquipmentRepository;
+import com.equipmgmt.repository.EquipmentSpecifications;
 import com.equipmgmt.repository.EquipmentTypeRepository;
+import com.equipmgmt.repository.MaintenanceBatchRepository;
+import com.equipmgmt.repository.MaintenanceBatchRepository.MaintainedEquipment;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
-import org.springframework.data.jpa.domain.JpaSort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class EquipmentService {
 
-    private static final String STATUS_ACTIVE           = "Active";
-    private static final int    MAX_DAYS_SINCE_CLEANING = 30;
+    public  static final String STATUS_ACTIVE           = "Active";
+    public  static final int    MAX_DAYS_SINCE_CLEANING = 30;
+    private static final int    MAX_SUGGESTIONS         = 50;
 
-    private final EquipmentRepository     equipmentRepository;
-    private final EquipmentTypeRepository equipmentTypeRepository;
+    private static final List<String> VALID_STATUSES =
+            List.of(STATUS_ACTIVE, "Inactive", "Under Maintenance");
+
+    // Public sort key → entity property. Anything else is rejected.
+    private static final Map<String, String> SORTABLE_FIELDS = Map.ofEntries(
+            Map.entry("id",                  "id"),
+            Map.entry("name",                "name"),
+            Map.entry("status",              "status"),
+            Map.entry("typeId",              "type.id"),
+            Map.entry("typeName",            "type.name"),
+            Map.entry("lastCleanedDate",     "lastCleanedDate"),
+            Map.entry("createdAt",           "createdAt"),
+            Map.entry("updatedAt",           "updatedAt"),
+            Map.entry("maintenanceCount",    "maintenanceCount"),
+            Map.entry("lastMaintainedBy",    "lastMaintainedBy"),
+            Map.entry("lastMaintenanceDate", "lastMaintenanceDate")
+    );
+
+    // Nullable sort keys where NULL means "never", i.e. the oldest value
+    private static final Set<String> NULLS_OLDEST_FIELDS = Set.of("lastMaintenanceDate");
+
+    private final EquipmentRepository         equipmentRepository;
+    private final EquipmentTypeRepository     equipmentTypeRepository;
+    private final MaintenanceBatchRepository  maintenanceBatchRepository;
+    private final EquipmentBulkRepository     equipmentBulkRepository;
+    private final CacheInvalidationBus        invalidationBus;
+    private final EquipmentNameIndex          equipmentNameIndex;
 
     // -------------------------------------------------------
     // READ — paginated, filterable, searchable, sortable
     // -------------------------------------------------------
     @Transactional(readOnly = true)
     public PagedResponseDTO<EquipmentResponseDTO> getAll(
-            String search, String status,
+            EquipmentFilter filter,
             int page, int size,
             String sortBy, String sortDir) {
 
-        // Map Java field names to database column names for native query sorting
-        String dbColumn = mapFieldToColumn(sortBy);
-        
-        // Use JpaSort.unsafe() to pass column name directly for native queries
-        Sort sort = sortDir.equalsIgnoreCase("desc")
-                ? JpaSort.unsafe(Sort.Direction.DESC, dbColumn)
-                : JpaSort.unsafe(Sort.Direction.ASC, dbColumn);
-
-        Pageable pageable = PageRequest.of(page, size, sort);
+        // Ordered by the specification, which keeps the sort's null handling
+        Sort sort = resolveSort(sortBy, sortDir);
+        Pageable pageable = PageRequest.of(page, size);
 
-        // Use null to mean "no filter" — the JPQL handles both cases
-        String searchParam = (search == null || search.isBlank()) ? null : search.trim();
-        String statusParam = (status == null || status.isBlank()) ? null : status.trim();
-
-        Page<Equipment> resultPage = equipmentRepository.findBySearchAndStatus(
-                searchParam, statusParam, pageable);
+        Page<Equipment> resultPage = equipmentRepository.findAll(
+                EquipmentSpecifications.matching(normalize(filter))
+                        .and(EquipmentSpecifications.orderedBy(sort)),
+                pageable);
 
         List<EquipmentResponseDTO> content = resultPage.getContent()
                 .stream()
@@ -83,6 +115,17 @@ public class EquipmentService {
         return toResponseDTO(equipment);
     }
 
+    // -------------------------------------------------------
+    // SUGGEST — name autocomplete, served from memory
+    // -------------------------------------------------------
+    public List<EquipmentSuggestionDTO> suggest(String prefix, int limit) {
+        if (limit < 1) {
+            throw new InvalidRequestException("limit must be at least 1.");
+        }
+        // Larger limits are capped rather than rejected
+        return equipmentNameIndex.suggest(prefix, Math.min(limit, MAX_SUGGESTIONS));
+    }
+
     // -------------------------------------------------------
     // CREATE
     // -------------------------------------------------------
@@ -100,7 +143,9 @@ public class EquipmentService {
                 .lastCleanedDate(dto.getLastCleanedDate())
                 .build();
 
-        return toResponseDTO(equipmentRepository.save(equipment));
+        Equipment saved = equipmentRepository.save(equipment);
+        publishEquipmentChanged(saved.getId());
+        return toResponseDTO(saved);
     }
 
     // -------------------------------------------------------
@@ -119,29 +164,110 @@ public class EquipmentService {
         equipment.setStatus(dto.getStatus());
         equipment.setLastCleanedDate(dto.getLastCleanedDate());
 
-        return toResponseDTO(equipmentRepository.save(equipment));
+        Equipment saved = equipmentRepository.save(equipment);
+        publishEquipmentChanged(id);
+        return toResponseDTO(saved);
     }
 
     // -------------------------------------------------------
     // DELETE
     // -------------------------------------------------------
+    // Tombstones the row so it vanishes from every read at once.
+    // Its maintenance logs (and finally the row itself) are removed
+    // in bounded chunks by EquipmentPurgeService, which also takes
+    // them out of the analytics rollups, keeping this call
+    // constant-time regardless of history size.
     @Transactional
     public void delete(Long id) {
-        Equipment equipment = findEquipmentOrThrow(id);
-        equipmentRepository.delete(equipment);
-        // Maintenance logs are removed by ON DELETE CASCADE in the DB
+        if (equipmentRepository.markDeleted(id) == 0) {
+            throw new ResourceNotFoundException("Equipment", id);
+        }
+        publishEquipmentChanged(id);
     }
 
     // -------------------------------------------------------
     // Internal helper — used by MaintenanceService to bypass
     // the 30-day check when a fresh maintenance record sets
     // last_cleaned_date to today.
+    // The maintenance summary (count, last maintained by/date)
+    // is advanced in the same UPDATE.
+    // -------------------------------------------------------
+    @Transactional
+    public void applyMaintenanceUpdate(Equipment equipment, LocalDate maintenanceDate, String performedBy) {
+        equipmentRepository.applyMaintenance(equipment.getId(), maintenanceDate, performedBy);
+        publishEquipmentChanged(equipment.getId());
+    }
+
+    // -------------------------------------------------------
+    // Set-based variant for group-committed maintenance logs:
+    // one UPDATE for every equipment in the batch. Expects a
+    // map of equipment id → that equipment's logs in the batch.
+    // -------------------------------------------------------
+    @Transactional
+    public void applyMaintenanceUpdates(Map<Long, MaintainedEquipment> maintained) {
+        if (maintained.isEmpty()) {
+            return;
+        }
+        maintenanceBatchRepository.markMaintained(new TreeMap<>(maintained));
+        maintained.keySet().forEach(this::publishEquipmentChanged);
+    }
+
+    // -------------------------------------------------------
+    // Bulk status transition — one chunk, one transaction.
+    // Driven by EquipmentBulkStatusService. The 30-day rule is
+    // checked inside the UPDATE against the locked rows.
+    // -------------------------------------------------------
+    @Transactional
+    public List<StatusTransitionRow> transitionStatusChunk(List<Long> ids, String targetStatus) {
+        List<StatusTransitionRow> rows = equipmentBulkRepository.transitionStatus(
+                ids, targetStatus,
+                STATUS_ACTIVE.equals(targetStatus),
+                LocalDate.now().minusDays(MAX_DAYS_SINCE_CLEANING));
+        rows.stream()
+                .filter(StatusTransitionRow::updated)
+                .forEach(row -> publishEquipmentChanged(row.id()));
+        return rows;
+    }
+
+    // Filter variant: the chunk is first locked through the filter itself,
+    // so a row another writer changed since it was selected, and that no
+    // longer matches, is left alone and absent from the result.
+    @Transactional
+    public List<StatusTransitionRow> transitionMatchingChunk(List<Long> ids, Specification<Equipment> filter,
+                                                             String targetStatus) {
+        List<Long> matching = equipmentBulkRepository.lockMatching(filter, ids);
+        return matching.isEmpty() ? List.of() : transitionStatusChunk(matching, targetStatus);
+    }
+
+    // -------------------------------------------------------
+    // Maintenance summary repair — one chunk, one transaction.
+    // Driven by EquipmentSummaryReconciler.
     // -------------------------------------------------------
     @Transactional
-    public void applyMaintenanceUpdate(Equipment equipment, LocalDate maintenanceDate) {
-        equipment.setStatus(STATUS_ACTIVE);
-        equipment.setLastCleanedDate(maintenanceDate);
-        equipmentRepository.save(equipment);
+    public SummaryCheckChunk repairMaintenanceSummaryChunk(long afterId, int chunkSize) {
+        List<Long> ids = equipmentBulkRepository.lockLiveIdsAfter(afterId, chunkSize);
+        if (ids.isEmpty()) {
+            return new SummaryCheckChunk(afterId, 0, List.of());
+        }
+        List<Long> repaired = equipmentBulkRepository.repairMaintenanceSummary(ids);
+        repaired.forEach(this::publishEquipmentChanged);
+        return new SummaryCheckChunk(ids.get(ids.size() - 1), ids.size(), repaired);
+    }
+
+    /** Same as {@link #repairMaintenanceSummaryChunk}, for the live rows among {@code ids}. */
+    @Transactional
+    public SummaryCheckChunk repairMaintenanceSummaryOf(List<Long> ids) {
+        List<Long> live = equipmentBulkRepository.lockLiveIds(ids);
+        if (live.isEmpty()) {
+            return new SummaryCheckChunk(ids.get(ids.size() - 1), 0, List.of());
+        }
+        List<Long> repaired = equipmentBulkRepository.repairMaintenanceSummary(live);
+        repaired.forEach(this::publishEquipmentChanged);
+        return new SummaryCheckChunk(live.get(live.size() - 1), live.size(), repaired);
+    }
+
+    /** Outcome of one repair chunk; from {@link #repairMaintenanceSummaryChunk}, {@code checked == 0} means done. */
+    public record SummaryCheckChunk(long lastId, int checked, List<Long> repaired) {
     }
 
     // -------------------------------------------------------
@@ -171,21 +297,70 @@ public class EquipmentService {
     // -------------------------------------------------------
     
     /**
-     * Maps Java field names to database column names for native query sorting.
-     * This is needed because native queries don't auto-translate camelCase to snake_case.
+     * Resolves the requested sort against the SORTABLE_FIELDS whitelist.
+     * The id is appended as a tie-breaker so pages are stable.
+     * Never-maintained equipment sorts as the oldest maintenance: last when
+     * descending, first when ascending — both served by idx_equipment_last_maint.
      */
-    private String mapFieldToColumn(String fieldName) {
-        return switch (fieldName) {
-            case "createdAt" -> "created_at";
-            case "updatedAt" -> "updated_at";
-            case "lastCleanedDate" -> "last_cleaned_date";
-            case "typeId" -> "type_id";
-            default -> fieldName; // name, status, id already match
-        };
+    private Sort resolveSort(String sortBy, String sortDir) {
+        String property = SORTABLE_FIELDS.get(sortBy);
+        if (property == null) {
+            throw new InvalidRequestException(
+                "Cannot sort by '" + sortBy + "'. Allowed: " + SORTABLE_FIELDS.keySet());
+        }
+        Sort.Direction direction = "desc".equalsIgnoreCase(sortDir)
+                ? Sort.Direction.DESC
+                : Sort.Direction.ASC;
+        Sort.Order primary = new Sort.Order(direction, property);
+        if (NULLS_OLDEST_FIELDS.contains(property)) {
+            primary = direction.isDescending() ? primary.nullsLast() : primary.nullsFirst();
+        }
+        return Sort.by(primary, new Sort.Order(direction, "id"));
     }
-    
+
+    /**
+     * Turns blank values into "no filter" and rejects unknown statuses.
+     */
+    EquipmentFilter normalize(EquipmentFilter filter) {
+        String search = filter.getSearch();
+        List<String> statuses = filter.getStatuses() == null ? List.of()
+                : filter.getStatuses().stream()
+                        .filter(st -> st != null && !st.isBlank())
+                        .map(String::trim)
+                        .distinct()
+                        .collect(Collectors.toList());
+        for (String st : statuses) {
+            if (!VALID_STATUSES.contains(st)) {
+                throw new InvalidRequestException(
+                    "Unknown status '" + st + "'. Allowed: " + VALID_STATUSES);
+            }
+        }
+        if (filter.getCleanedFrom() != null && filter.getCleanedTo() != null
+                && filter.getCleanedFrom().isAfter(filter.getCleanedTo())) {
+            throw new InvalidRequestException("cleanedFrom must not be after cleanedTo.");
+        }
+
+        return EquipmentFilter.builder()
+                .search(search == null || search.isBlank() ? null : search.trim())
+                .statuses(statuses)
+                .typeIds(filter.getTypeIds() == null ? List.of()
+                        : filter.getTypeIds().stream().distinct().collect(Collectors.toList()))
+                .cleanedFrom(filter.getCleanedFrom())
+                .cleanedTo(filter.getCleanedTo())
+                .build();
+    }
+
+    /**
+     * Queues cache invalidation for the row and every list page; sent to
+     * all instances only once the surrounding transaction commits.
+     */
+    private void publishEquipmentChanged(Long id) {
+        invalidationBus.invalidate(CacheKeys.equipment(id));
+        invalidationBus.invalidatePrefix(CacheKeys.EQUIPMENT_LIST_PREFIX);
+    }
+
     Equipment findEquipmentOrThrow(Long id) {
-        return equipmentRepository.findById(id)
+        return equipmentRepository.findActiveById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Equipment", id));
     }
 
@@ -202,6 +377,9 @@ public class EquipmentService {
                 .typeName(e.getType().getName())
                 .status(e.getStatus())
                 .lastCleanedDate(e.getLastCleanedDate())
+                .maintenanceCount(e.getMaintenanceCount())
+                .lastMaintainedBy(e.getLastMaintainedBy())
+                .lastMaintenanceDate(e.getLastMaintenanceDate())
                 .createdAt(e.getCreatedAt())
                 .updatedAt(e.getUpdatedAt())
                 .build();
@@ -0,0 +1,119 @@
+package com.equipmgmt.service;
+
+import com.equipmgmt.repository.EquipmentBulkRepository;
+import com.equipmgmt.service.EquipmentService.SummaryCheckChunk;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Check of the maintenance summary columns on equipment
+ * (maintenance_count, last_maintained_by, last_maintenance_date).
+ *
+ * Writes advance them in the same UPDATE that records a maintenance log, so
+ * drift only comes from outside the application — manual SQL, a restore, or
+ * adding the columns to an existing database. The routine check therefore
+ * only recounts equipment with logs written since the previous run, found
+ * through a maintenance_logs id watermark shared by every instance. The first
+ * run against a database, and the optional {@code full-cron} schedule, walk
+ * all live equipment instead. Either way the rows are locked and recounted
+ * in chunks of {@code chunk-size}, one transaction per chunk.
+ */
+@Slf4j
+@Service
+@Lazy(false)
+public class EquipmentSummaryReconciler {
+
+    private static final int MAX_LOGGED_IDS = 20;
+
+    private final EquipmentService        equipmentService;
+    private final EquipmentBulkRepository equipmentBulkRepository;
+    private final int                     chunkSize;
+    private final Counter                 repaired;
+
+    public EquipmentSummaryReconciler(
+            EquipmentService equipmentService,
+            EquipmentBulkRepository equipmentBulkRepository,
+            MeterRegistry meterRegistry,
+            @Value("${app.maintenance.summary-check.chunk-size:1000}") int chunkSize) {
+        this.equipmentService        = equipmentService;
+        this.equipmentBulkRepository = equipmentBulkRepository;
+        this.chunkSize               = chunkSize;
+        this.repaired                = meterRegistry.counter("equipment.summary.repaired");
+    }
+
+    // -------------------------------------------------------
+    // Routine check — equipment with new logs only
+    // -------------------------------------------------------
+    @Scheduled(fixedDelayString   = "${app.maintenance.summary-check.interval-ms:3600000}",
+               initialDelayString = "${app.maintenance.summary-check.initial-delay-ms:120000}")
+    public void reconcileRecent() {
+        long maxLogId = equipmentBulkRepository.findMaxLogId();
+        Optional<Long> afterLogId = equipmentBulkRepository.advanceSummaryWatermark(maxLogId);
+        if (afterLogId.isEmpty()) {
+            // Nothing has been checked against this database yet
+            reconcileAll();
+            equipmentBulkRepository.initSummaryWatermark(maxLogId);
+            return;
+        }
+
+        long started = System.currentTimeMillis();
+        List<Long> ids = equipmentBulkRepository.findEquipmentIdsWithLogsBetween(afterLogId.get(), maxLogId);
+        Tally tally = new Tally();
+        for (int from = 0; from < ids.size(); from += chunkSize) {
+            tally.add(equipmentService.repairMaintenanceSummaryOf(
+                    ids.subList(from, Math.min(from + chunkSize, ids.size()))));
+        }
+        tally.report("logs " + afterLogId.get() + ".." + maxLogId, started);
+    }
+
+    // -------------------------------------------------------
+    // Full check — every live equipment row
+    // -------------------------------------------------------
+    @Scheduled(cron = "${app.maintenance.summary-check.full-cron:-}")
+    public void reconcileAll() {
+        long started = System.currentTimeMillis();
+        Tally tally = new Tally();
+        long afterId = 0;
+        SummaryCheckChunk chunk;
+        while ((chunk = equipmentService.repairMaintenanceSummaryChunk(afterId, chunkSize)).checked() > 0) {
+            tally.add(chunk);
+            afterId = chunk.lastId();
+        }
+        tally.report("all live equipment", started);
+    }
+
+    private class Tally {
+
+        private long checked;
+        private long fixedCount;
+        private final List<Long> fixed = new ArrayList<>();
+
+        void add(SummaryCheckChunk chunk) {
+            checked    += chunk.checked();
+            fixedCount += chunk.repaired().size();
+            chunk.repaired().stream()
+                    .limit(Math.max(0, MAX_LOGGED_IDS - fixed.size()))
+                    .forEach(fixed::add);
+        }
+
+        void report(String scope, long started) {
+            repaired.increment(fixedCount);
+            if (fixedCount > 0) {
+                log.warn("Maintenance summary drift repaired on {} of {} equipment rows ({}; first ids: {})",
+                        fixedCount, checked, scope, fixed);
+            } else {
+                log.debug("Maintenance summary check ({}): {} equipment rows consistent in {} ms",
+                        scope, checked, System.currentTimeMillis() - started);
+            }
+        }
+    }
+}
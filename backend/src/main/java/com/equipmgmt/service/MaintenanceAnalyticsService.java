@@ -0,0 +1,66 @@
+package com.equipmgmt.service;
+
+import com.equipmgmt.dto.MaintenanceDailyCountDTO;
+import com.equipmgmt.dto.MaintenanceIntervalDTO;
+import com.equipmgmt.dto.TechnicianWorkloadDTO;
+import com.equipmgmt.exception.InvalidRequestException;
+import com.equipmgmt.repository.MaintenanceRollupRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * Maintenance analytics, answered from the rollup tables only — the cost is
+ * per day bucket in the range, independent of how many logs exist.
+ */
+@Service
+@RequiredArgsConstructor
+public class MaintenanceAnalyticsService {
+
+    private static final int DEFAULT_RANGE_DAYS = 30;
+    private static final int MAX_RANGE_DAYS     = 366;
+
+    private final MaintenanceRollupRepository rollupRepository;
+    private final EquipmentService            equipmentService;
+
+    @Transactional(readOnly = true)
+    public List<MaintenanceDailyCountDTO> dailyByType(LocalDate from, LocalDate to) {
+        LocalDate[] range = resolveRange(from, to);
+        return rollupRepository.findDailyByType(range[0], range[1]);
+    }
+
+    @Transactional(readOnly = true)
+    public List<TechnicianWorkloadDTO> technicianWorkload(LocalDate from, LocalDate to) {
+        LocalDate[] range = resolveRange(from, to);
+        return rollupRepository.findTechnicianWorkload(range[0], range[1]);
+    }
+
+    @Transactional(readOnly = true)
+    public MaintenanceIntervalDTO maintenanceInterval(Long equipmentId) {
+        // 404 for unknown or deleted equipment
+        equipmentService.findEquipmentOrThrow(equipmentId);
+
+        return rollupRepository.findEquipmentStats(equipmentId)
+                .orElseGet(() -> MaintenanceIntervalDTO.builder()
+                        .equipmentId(equipmentId)
+                        .logCount(0)
+                        .build());
+    }
+
+    /** Defaults to the last 30 days ending today; at most one year. */
+    private LocalDate[] resolveRange(LocalDate from, LocalDate to) {
+        LocalDate end   = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(DEFAULT_RANGE_DAYS - 1L);
+        if (start.isAfter(end)) {
+            throw new InvalidRequestException("from must not be after to.");
+        }
+        if (ChronoUnit.DAYS.between(start, end) >= MAX_RANGE_DAYS) {
+            throw new InvalidRequestException("Date range must not exceed " + MAX_RANGE_DAYS + " days.");
+        }
+        return new LocalDate[] { start, end };
+    }
+}
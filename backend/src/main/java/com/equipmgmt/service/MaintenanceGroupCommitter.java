@@ -0,0 +1,237 @@
+package com.equipmgmt.service;
+
+import com.equipmgmt.dto.MaintenanceRequestDTO;
+import com.equipmgmt.dto.MaintenanceResponseDTO;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Optional group commit for single {@code POST /api/maintenance} calls.
+ *
+ * When enabled, each submission is queued and its caller waits. A flusher
+ * thread collects submissions for up to {@code window-ms} or
+ * {@code max-batch} entries and writes them with
+ * {@link MaintenanceService#logMaintenanceBatch} — one transaction, one fsync.
+ * Each caller then gets its own response or its own error.
+ *
+ * If the batch transaction itself fails, every submission in it is retried
+ * alone through {@link MaintenanceService#logMaintenance}, so one bad row
+ * cannot fail its neighbours.
+ *
+ * A caller waits at most {@code timeout-ms}. If the flusher has not picked
+ * its submission up by then, the caller withdraws it and writes it directly;
+ * a submission is owned by exactly one side, so it is never written twice.
+ * Submissions still queued at shutdown are handed back the same way.
+ *
+ * When disabled (the default), submissions go straight to logMaintenance.
+ */
+@Slf4j
+@Service
+public class MaintenanceGroupCommitter implements SmartLifecycle {
+
+    private final MaintenanceService maintenanceService;
+    private final boolean enabled;
+    private final long    windowNanos;
+    private final int     maxBatch;
+    private final long    timeoutMs;
+
+    private final BlockingQueue<Submission> queue = new LinkedBlockingQueue<>();
+    private final DistributionSummary batchSizes;
+
+    private volatile boolean accepting;
+    private volatile boolean running;
+    private volatile Thread  flusher;
+
+    public MaintenanceGroupCommitter(
+            MaintenanceService maintenanceService,
+            MeterRegistry meterRegistry,
+            @Value("${app.maintenance.group-commit.enabled:false}")   boolean enabled,
+            @Value("${app.maintenance.group-commit.window-ms:3}")     long    windowMs,
+            @Value("${app.maintenance.group-commit.max-batch:64}")    int     maxBatch,
+            @Value("${app.maintenance.group-commit.timeout-ms:5000}") long    timeoutMs) {
+        this.maintenanceService = maintenanceService;
+        this.enabled     = enabled;
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMs);
+        this.maxBatch    = maxBatch;
+        this.timeoutMs   = timeoutMs;
+        this.batchSizes  = meterRegistry.summary("maintenance.group.commit.batch.size");
+    }
+
+    public MaintenanceResponseDTO submit(MaintenanceRequestDTO dto) {
+        if (!accepting || !flusher.isAlive()) {
+            return maintenanceService.logMaintenance(dto);
+        }
+        Submission submission = new Submission(dto);
+        queue.add(submission);
+        // Closed between the check and the add: nobody may drain it any more
+        if (!accepting && submission.take()) {
+            return maintenanceService.logMaintenance(dto);
+        }
+        try {
+            return await(submission);
+        } catch (TimeoutException e) {
+            if (submission.take()) {
+                log.warn("Group commit did not pick up a submission within {} ms, writing it directly", timeoutMs);
+                return maintenanceService.logMaintenance(dto);
+            }
+        }
+        // Already taken by a batch that is being written
+        try {
+            return await(submission);
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("Group commit did not complete within " + 2 * timeoutMs + " ms", e);
+        }
+    }
+
+    private MaintenanceResponseDTO await(Submission submission) throws TimeoutException {
+        try {
+            return submission.result.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for group commit", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof HandedBack) {
+                return maintenanceService.logMaintenance(submission.dto);
+            }
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private void flushLoop() {
+        while (running || !queue.isEmpty()) {
+            List<Submission> batch = new ArrayList<>(maxBatch);
+            try {
+                Submission first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null || !first.take()) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + windowNanos;
+                while (batch.size() < maxBatch) {
+                    long remaining = deadline - System.nanoTime();
+                    Submission next = remaining > 0
+                            ? queue.poll(remaining, TimeUnit.NANOSECONDS)
+                            : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    if (next.take()) {
+                        batch.add(next);
+                    }
+                }
+            } catch (InterruptedException e) {
+                // Stop waiting for more; still write what was collected
+                Thread.currentThread().interrupt();
+                running = false;
+            }
+            if (!batch.isEmpty()) {
+                flush(batch);
+            }
+        }
+    }
+
+    private void flush(List<Submission> batch) {
+        batchSizes.record(batch.size());
+        try {
+            List<MaintenanceService.BatchEntryResult> results = maintenanceService.logMaintenanceBatch(
+                    batch.stream().map(s -> s.dto).toList());
+            for (int i = 0; i < batch.size(); i++) {
+                MaintenanceService.BatchEntryResult result = results.get(i);
+                if (result.error() != null) {
+                    batch.get(i).result.completeExceptionally(result.error());
+                } else {
+                    batch.get(i).result.complete(result.response());
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("Group commit of {} maintenance logs failed, retrying individually: {}",
+                    batch.size(), e.getMessage());
+            for (Submission submission : batch) {
+                try {
+                    submission.result.complete(maintenanceService.logMaintenance(submission.dto));
+                } catch (RuntimeException individual) {
+                    submission.result.completeExceptionally(individual);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        flusher = new Thread(this::flushLoop, "maintenance-group-commit");
+        flusher.setDaemon(true);
+        flusher.start();
+        accepting = true;
+    }
+
+    @Override
+    public void stop() {
+        // New submissions go direct from here on
+        accepting = false;
+        running   = false;
+        if (flusher == null) {
+            return;
+        }
+        try {
+            flusher.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Anything still queued goes back to its caller, which writes it directly
+        List<Submission> leftovers = new ArrayList<>();
+        queue.drainTo(leftovers);
+        for (Submission submission : leftovers) {
+            if (submission.take()) {
+                submission.result.completeExceptionally(new HandedBack());
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private static final class Submission {
+        final MaintenanceRequestDTO dto;
+        final CompletableFuture<MaintenanceResponseDTO> result = new CompletableFuture<>();
+        final AtomicBoolean taken = new AtomicBoolean();
+
+        Submission(MaintenanceRequestDTO dto) {
+            this.dto = dto;
+        }
+
+        /** Claims the submission for whoever writes it: the flusher, or the caller itself. */
+        boolean take() {
+            return taken.compareAndSet(false, true);
+        }
+    }
+
+    /** Completes a submission that was never written, so its caller writes it. */
+    private static final class HandedBack extends RuntimeException {
+        HandedBack() {
+            super(null, null, false, false);
+        }
+    }
+}
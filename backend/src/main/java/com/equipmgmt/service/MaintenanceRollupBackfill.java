@@ -0,0 +1,147 @@
+package com.equipmgmt.service;
+
+import com.equipmgmt.repository.MaintenanceRollupRepository;
+import com.equipmgmt.repository.MaintenanceRollupRepository.LogBounds;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Rebuilds the maintenance rollups from maintenance_logs.
+ *
+ * The daily tables are recounted in chunks of {@code days-per-chunk} days and
+ * the per-equipment stats in chunks of {@code equipment-per-chunk} ids, on a
+ * pool of {@code threads} workers. Each chunk is one short transaction that
+ * first takes a SHARE lock on maintenance_logs: new logs wait for the chunk to
+ * commit and then increment the recounted rows, so nothing is counted twice
+ * or lost while the backfill runs alongside live traffic.
+ */
+@Slf4j
+@Service
+public class MaintenanceRollupBackfill {
+
+    private final MaintenanceRollupRepository rollupRepository;
+    private final TransactionTemplate         chunkTx;
+
+    private final int     threads;
+    private final int     daysPerChunk;
+    private final int     equipmentPerChunk;
+    private final boolean onStartup;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public MaintenanceRollupBackfill(
+            MaintenanceRollupRepository rollupRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.analytics.backfill.threads:4}")                int threads,
+            @Value("${app.analytics.backfill.days-per-chunk:31}")        int daysPerChunk,
+            @Value("${app.analytics.backfill.equipment-per-chunk:1000}") int equipmentPerChunk,
+            @Value("${app.analytics.backfill.on-startup:false}")         boolean onStartup) {
+        this.rollupRepository  = rollupRepository;
+        this.chunkTx           = new TransactionTemplate(transactionManager);
+        this.threads           = threads;
+        this.daysPerChunk      = daysPerChunk;
+        this.equipmentPerChunk = equipmentPerChunk;
+        this.onStartup         = onStartup;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        if (onStartup) {
+            start();
+        }
+    }
+
+    /** Starts a rebuild on a background thread; false if one is already running. */
+    public boolean start() {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        Thread runner = new Thread(() -> {
+            try {
+                run();
+            } finally {
+                running.set(false);
+            }
+        }, "rollup-backfill");
+        runner.setDaemon(true);
+        runner.start();
+        return true;
+    }
+
+    private void run() {
+        long started = System.currentTimeMillis();
+
+        // Bounds, and clearing anything outside them, in one locked transaction
+        Optional<LogBounds> found = chunkTx.execute(status -> {
+            rollupRepository.lockLogsForRebuild();
+            Optional<LogBounds> b = rollupRepository.findLogBounds();
+            b.ifPresentOrElse(rollupRepository::deleteOutside, rollupRepository::deleteAll);
+            return b;
+        });
+        if (found == null || found.isEmpty()) {
+            log.info("Rollup backfill: no maintenance logs, rollups cleared");
+            return;
+        }
+        LogBounds bounds = found.get();
+
+        List<Runnable> chunks = new ArrayList<>();
+        for (LocalDate from = bounds.firstDay(); !from.isAfter(bounds.lastDay()); from = from.plusDays(daysPerChunk)) {
+            LocalDate lo = from;
+            LocalDate hi = min(from.plusDays(daysPerChunk - 1L), bounds.lastDay());
+            chunks.add(() -> inChunk(() -> rollupRepository.rebuildDays(lo, hi)));
+        }
+        for (long from = bounds.firstEquipmentId(); from <= bounds.lastEquipmentId(); from += equipmentPerChunk) {
+            long lo = from;
+            long hi = Math.min(from + equipmentPerChunk - 1, bounds.lastEquipmentId());
+            chunks.add(() -> inChunk(() -> rollupRepository.rebuildEquipment(lo, hi)));
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>(chunks.size());
+            chunks.forEach(chunk -> futures.add(pool.submit(chunk)));
+            int failed = 0;
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    failed++;
+                    log.warn("Rollup backfill chunk failed", e.getCause());
+                }
+            }
+            log.info("Rollup backfill: {} chunks ({} failed) in {} ms",
+                    chunks.size(), failed, System.currentTimeMillis() - started);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.info("Rollup backfill interrupted");
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private void inChunk(Runnable rebuild) {
+        chunkTx.executeWithoutResult(status -> {
+            rollupRepository.lockLogsForRebuild();
+            rebuild.run();
+        });
+    }
+
+    private static LocalDate min(LocalDate a, LocalDate b) {
+        return a.isBefore(b) ? a : b;
+    }
+}
@@ -1,23 +1,41 @@
 package com.equipmgmt.service;
 
+import com.equipmgmt.cache.CacheInvalidationBus;
+import com.equipmgmt.cache.CacheKeys;
 import com.equipmgmt.dto.MaintenanceRequestDTO;
 import com.equipmgmt.dto.MaintenanceResponseDTO;
 import com.equipmgmt.entity.Equipment;
 import com.equipmgmt.entity.MaintenanceLog;
+import com.equipmgmt.exception.ResourceNotFoundException;
+import com.equipmgmt.repository.EquipmentRepository;
+import com.equipmgmt.repository.MaintenanceBatchRepository;
+import com.equipmgmt.repository.MaintenanceBatchRepository.MaintainedEquipment;
 import com.equipmgmt.repository.MaintenanceLogRepository;
+import com.equipmgmt.repository.MaintenanceRollupRepository;
+import com.equipmgmt.repository.MaintenanceRollupRepository.LogFact;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class MaintenanceService {
 
-    private final MaintenanceLogRepository maintenanceLogRepository;
-    private final EquipmentService         equipmentService;
+    private final MaintenanceLogRepository    maintenanceLogRepository;
+    private final MaintenanceBatchRepository  maintenanceBatchRepository;
+    private final MaintenanceRollupRepository maintenanceRollupRepository;
+    private final EquipmentRepository         equipmentRepository;
+    private final EquipmentService            equipmentService;
+    private final CacheInvalidationBus        invalidationBus;
 
     // -------------------------------------------------------
     // CREATE — Workflow 1
@@ -26,9 +44,10 @@ public class MaintenanceService {
      * Logs a maintenance event and atomically:
      *   1. Sets equipment.status  → "Active"
      *   2. Sets equipment.last_cleaned_date → maintenanceDate
+     *   3. Adds the log to the analytics rollups
      *
-     * The @Transactional ensures both the log save and the
-     * equipment update either succeed together or roll back.
+     * The @Transactional ensures the log save, the equipment
+     * update and the rollups either succeed together or roll back.
      */
     @Transactional
     public MaintenanceResponseDTO logMaintenance(MaintenanceRequestDTO dto) {
@@ -41,18 +60,99 @@ public class MaintenanceService {
                 .maintenanceDate(dto.getMaintenanceDate())
                 .notes(dto.getNotes())
                 .performedBy(dto.getPerformedBy())
+                .typeId(equipment.getType().getId())
                 .build();
 
         MaintenanceLog saved = maintenanceLogRepository.save(log);
+        maintenanceRollupRepository.increment(List.of(toLogFact(equipment, dto)));
 
         // Auto-update equipment: status → Active, lastCleanedDate → maintenanceDate
         // Note: this uses a dedicated method that bypasses the 30-day check
         // because the new maintenance date IS the cleaning date (always fresh).
-        equipmentService.applyMaintenanceUpdate(equipment, dto.getMaintenanceDate());
+        equipmentService.applyMaintenanceUpdate(equipment, dto.getMaintenanceDate(), dto.getPerformedBy());
+        invalidationBus.invalidate(CacheKeys.maintenance(equipment.getId()));
 
         return toResponseDTO(saved);
     }
 
+    // -------------------------------------------------------
+    // CREATE (batch) — Workflow 1 for group commit
+    // -------------------------------------------------------
+    /**
+     * Logs several independent submissions in one transaction:
+     * one equipment lookup, one batched INSERT and one set-based
+     * equipment UPDATE. Submissions whose equipment does not exist
+     * are rejected individually and never touch the database.
+     *
+     * Results are returned in input order. When several logs hit the
+     * same equipment, the last one submitted sets last_cleaned_date and
+     * the maintenance summary counts all of them, as it would with one
+     * transaction per request.
+     */
+    @Transactional
+    public List<BatchEntryResult> logMaintenanceBatch(List<MaintenanceRequestDTO> dtos) {
+        Set<Long> equipmentIds = dtos.stream()
+                .map(MaintenanceRequestDTO::getEquipmentId)
+                .collect(Collectors.toSet());
+        Map<Long, Equipment> equipmentById = equipmentRepository.findActiveByIdIn(equipmentIds)
+                .stream()
+                .collect(Collectors.toMap(Equipment::getId, Function.identity()));
+
+        List<MaintenanceRequestDTO> accepted = dtos.stream()
+                .filter(dto -> equipmentById.containsKey(dto.getEquipmentId()))
+                .collect(Collectors.toList());
+
+        List<Long> ids = accepted.isEmpty() ? List.of()
+                : maintenanceBatchRepository.nextLogIds(accepted.size());
+        Instant createdAt = Instant.now();
+        if (!accepted.isEmpty()) {
+            List<LogFact> facts = accepted.stream()
+                    .map(dto -> toLogFact(equipmentById.get(dto.getEquipmentId()), dto))
+                    .collect(Collectors.toList());
+            maintenanceBatchRepository.insertLogs(ids, accepted, facts, createdAt);
+            maintenanceRollupRepository.increment(facts);
+        }
+
+        Map<Long, MaintainedEquipment> maintained = new LinkedHashMap<>();
+        accepted.forEach(dto -> maintained.merge(
+                dto.getEquipmentId(), MaintainedEquipment.of(dto), MaintainedEquipment::then));
+        equipmentService.applyMaintenanceUpdates(maintained);
+        maintained.keySet().forEach(id -> invalidationBus.invalidate(CacheKeys.maintenance(id)));
+
+        List<BatchEntryResult> results = new ArrayList<>(dtos.size());
+        int next = 0;
+        for (MaintenanceRequestDTO dto : dtos) {
+            Equipment equipment = equipmentById.get(dto.getEquipmentId());
+            if (equipment == null) {
+                results.add(BatchEntryResult.failed(
+                        new ResourceNotFoundException("Equipment", dto.getEquipmentId())));
+                continue;
+            }
+            results.add(BatchEntryResult.succeeded(MaintenanceResponseDTO.builder()
+                    .id(ids.get(next++))
+                    .equipmentId(equipment.getId())
+                    .equipmentName(equipment.getName())
+                    .maintenanceDate(dto.getMaintenanceDate())
+                    .notes(dto.getNotes())
+                    .performedBy(dto.getPerformedBy())
+                    .createdAt(createdAt)
+                    .build()));
+        }
+        return results;
+    }
+
+    /** Outcome of one submission inside {@link #logMaintenanceBatch}. */
+    public record BatchEntryResult(MaintenanceResponseDTO response, RuntimeException error) {
+
+        static BatchEntryResult succeeded(MaintenanceResponseDTO response) {
+            return new BatchEntryResult(response, null);
+        }
+
+        static BatchEntryResult failed(RuntimeException error) {
+            return new BatchEntryResult(null, error);
+        }
+    }
+
     // -------------------------------------------------------
     // READ — maintenance history for one equipment
     // -------------------------------------------------------
@@ -69,8 +169,13 @@ public class MaintenanceService {
     }
 
     // -------------------------------------------------------
-    // Mapper
+    // Mappers
     // -------------------------------------------------------
+    private LogFact toLogFact(Equipment equipment, MaintenanceRequestDTO dto) {
+        return new LogFact(equipment.getId(), equipment.getType().getId(),
+                dto.getMaintenanceDate(), dto.getPerformedBy());
+    }
+
     private MaintenanceResponseDTO toResponseDTO(MaintenanceLog log) {
         return MaintenanceResponseDTO.builder()
                 .id(log.getId())
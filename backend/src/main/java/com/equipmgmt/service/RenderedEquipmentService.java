@@ -0,0 +1,109 @@
+package com.equipmgmt.service;
+
+import com.equipmgmt.cache.CacheKeys;
+import com.equipmgmt.cache.RenderedResponseCache;
+import com.equipmgmt.dto.EquipmentFilter;
+import com.equipmgmt.exception.ResourceNotFoundException;
+import com.equipmgmt.repository.EquipmentRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Serves equipment reads as ready-to-write JSON bytes from
+ * {@link RenderedResponseCache}, falling back to {@link EquipmentService} on a miss.
+ *
+ * <ul>
+ *   <li>Detail — cached under {@code equipment:<id>}, versioned by updated_at.
+ *       A hit costs one indexed updated_at lookup and no serialization.</li>
+ *   <li>List — only pages without a search term, up to {@code max-list-page},
+ *       keyed by the normalized query parameters under {@code equipment-list:}.</li>
+ * </ul>
+ */
+@Service
+@RequiredArgsConstructor
+public class RenderedEquipmentService {
+
+    private final EquipmentService      equipmentService;
+    private final EquipmentRepository   equipmentRepository;
+    private final RenderedResponseCache cache;
+    private final ObjectMapper          objectMapper;
+
+    @Value("${app.cache.rendered.max-list-page:4}")
+    private int maxListPage;
+
+    public byte[] getById(Long id) {
+        Instant updatedAt = equipmentRepository.findUpdatedAtById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Equipment", id));
+        String key     = CacheKeys.equipment(id);
+        String version = updatedAt.toString();
+
+        byte[] body = cache.get(key, version);
+        if (body == null) {
+            long generation = cache.generation();
+            body = render(equipmentService.getById(id));
+            cache.put(key, version, body, generation);
+        }
+        return body;
+    }
+
+    public byte[] getAll(EquipmentFilter filter, int page, int size, String sortBy, String sortDir) {
+        boolean cacheable = (filter.getSearch() == null || filter.getSearch().isBlank())
+                && page >= 0 && page <= maxListPage;
+        if (!cacheable) {
+            return render(equipmentService.getAll(filter, page, size, sortBy, sortDir));
+        }
+
+        String key = listKey(filter, page, size, sortBy, sortDir);
+        byte[] body = cache.get(key, null);
+        if (body == null) {
+            long generation = cache.generation();
+            body = render(equipmentService.getAll(filter, page, size, sortBy, sortDir));
+            cache.put(key, null, body, generation);
+        }
+        return body;
+    }
+
+    /**
+     * Same query, same key: blank values dropped, multi-values sorted,
+     * sort direction folded to asc/desc the way EquipmentService reads it.
+     */
+    private String listKey(EquipmentFilter filter, int page, int size, String sortBy, String sortDir) {
+        return CacheKeys.EQUIPMENT_LIST_PREFIX
+                + "status=" + joinSorted(filter.getStatuses())
+                + "&type=" + joinSorted(filter.getTypeIds())
+                + "&from=" + (filter.getCleanedFrom() == null ? "" : filter.getCleanedFrom())
+                + "&to=" + (filter.getCleanedTo() == null ? "" : filter.getCleanedTo())
+                + "&page=" + page
+                + "&size=" + size
+                + "&sort=" + sortBy
+                + "&dir=" + ("desc".equalsIgnoreCase(sortDir) ? "desc" : "asc");
+    }
+
+    private static String joinSorted(List<?> values) {
+        if (values == null) {
+            return "";
+        }
+        return values.stream()
+                .map(String::valueOf)
+                .map(String::trim)
+                .filter(v -> !v.isEmpty())
+                .distinct()
+                .sorted()
+                .collect(Collectors.joining(","));
+    }
+
+    private byte[] render(Object dto) {
+        try {
+            return objectMapper.writeValueAsBytes(dto);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize " + dto.getClass().getSimpleName(), e);
+        }
+    }
+}
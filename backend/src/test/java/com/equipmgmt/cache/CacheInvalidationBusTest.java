@@ -0,0 +1,111 @@
+package com.equipmgmt.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CacheInvalidationBusTest {
+
+    private static final int STORM_THRESHOLD = 200;
+
+    private final RecordingTarget target = new RecordingTarget();
+    private CacheInvalidationBus bus;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        ObjectProvider<InvalidationTarget> targets = mock(ObjectProvider.class);
+        when(targets.orderedStream()).thenAnswer(invocation -> Stream.of(target));
+        // Disabled: local dispatch only, no sender thread or database
+        bus = new CacheInvalidationBus(targets, null, new SimpleMeterRegistry(),
+                false, "equipmgmt_invalidation", 5, STORM_THRESHOLD);
+    }
+
+    @AfterEach
+    void clearTransaction() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.unbindResourceIfPossible(bus);
+    }
+
+    @Test
+    void aCommitIsAppliedLocallyOnceItCompletes() {
+        TransactionSynchronizationManager.initSynchronization();
+        bus.invalidate(CacheKeys.equipment(1L));
+        bus.invalidate(CacheKeys.equipment(2L));
+        bus.invalidatePrefix(CacheKeys.EQUIPMENT_LIST_PREFIX);
+        assertThat(target.calls).isEmpty();
+
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+
+        assertThat(target.calls).containsExactly(
+                "prefix " + CacheKeys.EQUIPMENT_LIST_PREFIX, "key equipment:1", "key equipment:2");
+    }
+
+    @Test
+    void aRollbackPublishesNothing() {
+        TransactionSynchronizationManager.initSynchronization();
+        bus.invalidate(CacheKeys.equipment(1L));
+
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        assertThat(target.calls).isEmpty();
+    }
+
+    @Test
+    void aStormIsCollapsedBeforeLocalDispatch() {
+        TransactionSynchronizationManager.initSynchronization();
+        IntStream.rangeClosed(1, STORM_THRESHOLD + 1).forEach(id -> bus.invalidate(CacheKeys.equipment((long) id)));
+
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+
+        assertThat(target.calls).containsExactly("prefix " + CacheKeys.EQUIPMENT_PREFIX);
+    }
+
+    @Test
+    void outsideATransactionTheChangeIsAppliedAtOnce() {
+        bus.invalidate(CacheKeys.equipment(1L));
+
+        assertThat(target.calls).containsExactly("key equipment:1");
+    }
+
+    private static void complete(int status) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(status));
+    }
+
+    private static class RecordingTarget implements InvalidationTarget {
+
+        final List<String> calls = new ArrayList<>();
+
+        @Override
+        public void invalidate(String key) {
+            calls.add("key " + key);
+        }
+
+        @Override
+        public void invalidatePrefix(String prefix) {
+            calls.add("prefix " + prefix);
+        }
+
+        @Override
+        public void invalidateAll() {
+            calls.add("all");
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.equipmgmt.cache;
+
+import com.equipmgmt.dto.EquipmentSuggestionDTO;
+import com.equipmgmt.repository.EquipmentNameView;
+import com.equipmgmt.repository.EquipmentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BooleanSupplier;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class EquipmentNameIndexTest {
+
+    private static final Instant V1 = Instant.parse("2026-03-02T08:00:00.123456Z");
+    private static final Instant V2 = V1.plusSeconds(60);
+
+    // What the mocked repository returns, by id
+    private final Map<Long, EquipmentNameView> database = new ConcurrentHashMap<>();
+
+    private EquipmentNameIndex index;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        EquipmentRepository repository = mock(EquipmentRepository.class);
+        when(repository.streamAllNames()).thenAnswer(invocation -> database.values().stream());
+        when(repository.findNameViewsByIdIn(any())).thenAnswer(invocation ->
+                ((Collection<Long>) invocation.getArgument(0)).stream()
+                        .map(database::get)
+                        .filter(row -> row != null)
+                        .toList());
+        index = new EquipmentNameIndex(repository, mock(PlatformTransactionManager.class));
+    }
+
+    /** Component names double as the projection's getters. */
+    private record Row(Long getId, String getName, String getStatus, Instant getUpdatedAt)
+            implements EquipmentNameView {
+    }
+
+    // -------------------------------------------------------
+    // Query
+    // -------------------------------------------------------
+    @Test
+    void prefixesMatchIgnoringAccentsCaseAndSpacing() {
+        index.upsert(new Row(1L, "\u00c9mile  Pump", "Active", V1));
+        index.upsert(new Row(2L, "emile boiler", "Inactive", V1));
+        index.upsert(new Row(3L, "Chiller", "Active", V1));
+
+        assertThat(names(index.suggest("EMILE ", 10))).containsExactly("emile boiler", "\u00c9mile  Pump");
+        assertThat(names(index.suggest("\u00e9mile p", 10))).containsExactly("\u00c9mile  Pump");
+        assertThat(names(index.suggest("emile", 1))).containsExactly("emile boiler");
+        assertThat(index.suggest("  ", 10)).isEmpty();
+    }
+
+    @Test
+    void overlayShadowsTheSnapshotOnRenameAndEvict() {
+        index.upsert(new Row(1L, "Pump A", "Active", V1));
+        index.upsert(new Row(2L, "Pump B", "Active", V1));
+        index.upsert(new Row(3L, "Pump C", "Active", V1));
+        index.afterBuild(); // into the snapshot
+
+        index.upsert(new Row(1L, "Valve A", "Inactive", V2));
+        index.evict(2L);
+        index.upsert(new Row(4L, "Pump AA", "Active", V2));
+
+        assertThat(names(index.suggest("pump", 10))).containsExactly("Pump AA", "Pump C");
+        assertThat(index.suggest("valve", 10))
+                .extracting(EquipmentSuggestionDTO::getId, EquipmentSuggestionDTO::getStatus)
+                .containsExactly(tuple(1L, "Inactive"));
+        assertThat(index.size()).isEqualTo(3);
+        assertThat(index.indexedIds()).containsExactlyInAnyOrder(1L, 3L, 4L);
+        assertThat(index.indexedVersion(1L)).isEqualTo(V2);
+        assertThat(index.indexedVersion(2L)).isNull();
+    }
+
+    @Test
+    void aLargeOverlayIsMergedIntoTheSnapshot() {
+        IntStream.rangeClosed(1, 3_000).forEach(i ->
+                index.upsert(new Row((long) i, "Pump %04d".formatted(i), "Active", V1)));
+        // Renames and evictions after the merges still shadow the snapshot
+        IntStream.rangeClosed(1, 1_500).forEach(i ->
+                index.upsert(new Row((long) i, "Valve %04d".formatted(i), "Inactive", V2)));
+        IntStream.rangeClosed(2_001, 2_500).forEach(i -> index.evict((long) i));
+
+        assertThat(index.size()).isEqualTo(2_500);
+        assertThat(index.indexedIds()).hasSize(2_500);
+        assertThat(index.suggest("pump 0", 2_000)).isEmpty();
+        assertThat(index.suggest("pump 1", 2_000)).hasSize(499);
+        assertThat(index.suggest("pump 2", 2_000)).hasSize(500);
+        assertThat(names(index.suggest("pump", 3))).containsExactly("Pump 1501", "Pump 1502", "Pump 1503");
+        assertThat(index.suggest("valve", 2_000)).hasSize(1_500);
+        // Versions survive the snapshot's microsecond encoding
+        assertThat(index.indexedVersion(1L)).isEqualTo(V2);
+        assertThat(index.indexedVersion(2_600L)).isEqualTo(V1);
+    }
+
+    // -------------------------------------------------------
+    // ReloadableIndex
+    // -------------------------------------------------------
+    @Test
+    void aReloadNeverOverwritesANewerRow() throws InterruptedException {
+        database.put(1L, new Row(1L, "Pump A", "Active", V2));
+        database.put(2L, new Row(2L, "Pump B", "Active", V1));
+        index.buildOnStartup();
+        await(index::isReady);
+
+        // A replica lagging behind the build hands back an older row for 1
+        database.put(1L, new Row(1L, "Pump A (old)", "Inactive", V1));
+        database.put(2L, new Row(2L, "Pump B (renamed)", "Active", V2));
+        index.invalidate(CacheKeys.equipment(1L));
+        index.invalidate(CacheKeys.equipment(2L));
+        await(() -> names(index.suggest("pump b", 10)).contains("Pump B (renamed)"));
+
+        assertThat(names(index.suggest("pump", 10))).containsExactly("Pump A", "Pump B (renamed)");
+
+        database.remove(1L);
+        index.invalidate(CacheKeys.equipment(1L));
+        await(() -> index.size() == 1);
+        assertThat(names(index.suggest("pump", 10))).containsExactly("Pump B (renamed)");
+    }
+
+    // -------------------------------------------------------
+    // Helpers
+    // -------------------------------------------------------
+    private static List<String> names(List<EquipmentSuggestionDTO> suggestions) {
+        return suggestions.stream().map(EquipmentSuggestionDTO::getName).toList();
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.currentTimeMillis()).as("condition not met in time").isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.equipmgmt.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InvalidationBatchTest {
+
+    // -------------------------------------------------------
+    // coalesce
+    // -------------------------------------------------------
+    @Test
+    void keysUpToTheThresholdStayKeys() {
+        InvalidationBatch batch = batch(0, 3);
+
+        batch.coalesce(3);
+
+        assertThat(batch.keys).hasSize(3);
+        assertThat(batch.prefixes).isEmpty();
+    }
+
+    @Test
+    void aStormCollapsesIntoNamespacePrefixes() {
+        InvalidationBatch batch = batch(0, 4);
+        batch.keys.add("maintenance:7");
+
+        batch.coalesce(3);
+
+        assertThat(batch.keys).isEmpty();
+        assertThat(batch.prefixes).containsExactlyInAnyOrder(CacheKeys.EQUIPMENT_PREFIX, CacheKeys.MAINTENANCE_PREFIX);
+    }
+
+    @Test
+    void keysUnderAPrefixAreDropped() {
+        InvalidationBatch batch = batch(0, 2);
+        batch.keys.add("maintenance:7");
+        batch.prefixes.add(CacheKeys.EQUIPMENT_PREFIX);
+
+        batch.coalesce(10);
+
+        assertThat(batch.keys).containsExactly("maintenance:7");
+    }
+
+    @Test
+    void flushAllDropsEverythingElse() {
+        InvalidationBatch batch = batch(0, 2);
+        batch.prefixes.add(CacheKeys.EQUIPMENT_LIST_PREFIX);
+        batch.all = true;
+
+        batch.coalesce(10);
+
+        assertThat(batch.keys).isEmpty();
+        assertThat(batch.prefixes).isEmpty();
+        assertThat(batch.isEmpty()).isFalse();
+    }
+
+    // -------------------------------------------------------
+    // mergeUpTo
+    // -------------------------------------------------------
+    @Test
+    void mergingNeverPushesSmallCommitsOverTheThreshold() {
+        List<InvalidationBatch> merged = InvalidationBatch.mergeUpTo(
+                List.of(batch(0, 80, 300), batch(100, 80, 200), batch(200, 80, 100)), 200, "node");
+
+        // 80 + 80 fit together; the third would make 240
+        assertThat(merged).hasSize(2);
+        assertThat(merged.get(0).keys).hasSize(160);
+        assertThat(merged.get(1).keys).hasSize(80);
+        merged.forEach(batch -> batch.coalesce(200));
+        assertThat(merged).allSatisfy(batch -> assertThat(batch.prefixes).isEmpty());
+    }
+
+    @Test
+    void aBatchOverTheThresholdStaysOnItsOwn() {
+        List<InvalidationBatch> merged = InvalidationBatch.mergeUpTo(
+                List.of(batch(0, 10), batch(100, 500), batch(1000, 10)), 200, "node");
+
+        assertThat(merged).extracting(batch -> batch.keys.size()).containsExactly(10, 500, 10);
+    }
+
+    @Test
+    void aMergedBatchCarriesTheOldestSendTime() {
+        List<InvalidationBatch> merged = InvalidationBatch.mergeUpTo(
+                List.of(batch(0, 1, 300), batch(10, 1, 100), batch(20, 1, 200)), 200, "node");
+
+        assertThat(merged).singleElement().satisfies(batch -> {
+            assertThat(batch.sentAtMillis).isEqualTo(100);
+            assertThat(batch.origin).isEqualTo("node");
+        });
+    }
+
+    // -------------------------------------------------------
+    // Wire format
+    // -------------------------------------------------------
+    @Test
+    void encodeSplitsLargeBatchesAndDecodeReadsThemBack() {
+        InvalidationBatch batch = batch(0, 2_000, 42);
+        batch.prefixes.add(CacheKeys.EQUIPMENT_LIST_PREFIX);
+
+        List<String> payloads = batch.encode();
+
+        assertThat(payloads).hasSizeGreaterThan(1).allSatisfy(p -> assertThat(p.length()).isLessThan(8000));
+        InvalidationBatch decoded = new InvalidationBatch("node", 42);
+        payloads.stream().map(InvalidationBatch::decode).forEach(decoded::merge);
+        assertThat(decoded.keys).isEqualTo(batch.keys);
+        assertThat(decoded.prefixes).isEqualTo(batch.prefixes);
+    }
+
+    @Test
+    void malformedPayloadsDecodeToNull() {
+        assertThat(InvalidationBatch.decode("no separators")).isNull();
+        assertThat(InvalidationBatch.decode("node|not-a-number|kequipment:1")).isNull();
+    }
+
+    private static InvalidationBatch batch(int firstId, int keyCount) {
+        return batch(firstId, keyCount, 0);
+    }
+
+    /** {@code keyCount} equipment keys starting at {@code firstId}. */
+    private static InvalidationBatch batch(int firstId, int keyCount, long sentAtMillis) {
+        InvalidationBatch batch = new InvalidationBatch("node", sentAtMillis);
+        IntStream.range(firstId, firstId + keyCount)
+                .forEach(id -> batch.keys.add(CacheKeys.equipment((long) id)));
+        return batch;
+    }
+}
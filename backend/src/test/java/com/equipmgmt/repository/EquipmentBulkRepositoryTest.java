@@ -0,0 +1,168 @@
+package com.equipmgmt.repository;
+
+import com.equipmgmt.dto.EquipmentFilter;
+import com.equipmgmt.entity.Equipment;
+import com.equipmgmt.repository.EquipmentBulkRepository.StatusTransitionRow;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Import(EquipmentBulkRepository.class)
+class EquipmentBulkRepositoryTest extends PostgresRepositoryTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 3, 2);
+
+    @Autowired
+    EquipmentBulkRepository bulkRepository;
+
+    // -------------------------------------------------------
+    // Bulk status transitions
+    // -------------------------------------------------------
+    @Test
+    void findIdsAfterPagesByKeyset() {
+        long first  = insertEquipment("Pump A", HVAC, "Inactive", null);
+        long second = insertEquipment("Pump B", HVAC, "Inactive", null);
+        insertEquipment("Panel", ELECTRICAL, "Inactive", null);
+        long third  = insertEquipment("Pump C", HVAC, "Inactive", null);
+        Specification<Equipment> pumps = EquipmentSpecifications.matching(EquipmentFilter.builder().typeIds(List.of(HVAC)).build());
+
+        assertThat(bulkRepository.findIdsAfter(pumps, 0, 2)).containsExactly(first, second);
+        assertThat(bulkRepository.findIdsAfter(pumps, second, 2)).containsExactly(third);
+        assertThat(bulkRepository.findIdsAfter(pumps, third, 2)).isEmpty();
+    }
+
+    @Test
+    void lockMatchingChecksTheSpecificationAgain() {
+        long kept  = insertEquipment("Pump A", HVAC, "Inactive", null);
+        long moved = insertEquipment("Pump B", HVAC, "Inactive", null);
+        Specification<Equipment> inactive =
+                EquipmentSpecifications.matching(EquipmentFilter.builder().statuses(List.of("Inactive")).build());
+        List<Long> selected = bulkRepository.findIdsAfter(inactive, 0, 10);
+
+        // Changed by another writer between the page read and the lock
+        jdbc.update("UPDATE equipment SET status = 'Under Maintenance' WHERE id = :id",
+                new MapSqlParameterSource("id", moved));
+
+        assertThat(selected).containsExactly(kept, moved);
+        assertThat(bulkRepository.lockMatching(inactive, selected)).containsExactly(kept);
+    }
+
+    @Test
+    void activatingRequiresARecentCleaning() {
+        long recent  = insertEquipment("Pump A", HVAC, "Inactive", TODAY.minusDays(30));
+        long stale   = insertEquipment("Pump B", HVAC, "Inactive", TODAY.minusDays(31));
+        long never   = insertEquipment("Pump C", HVAC, "Inactive", null);
+        long already = insertEquipment("Pump D", HVAC, "Active", TODAY);
+        long deleted = insertEquipment("Pump E", HVAC, "Inactive", TODAY);
+        tombstone(deleted);
+
+        List<StatusTransitionRow> rows = bulkRepository.transitionStatus(
+                List.of(recent, stale, never, already, deleted), "Active", true, TODAY.minusDays(30));
+
+        assertThat(rows).containsExactly(
+                new StatusTransitionRow(recent, "Inactive", TODAY.minusDays(30), true),
+                new StatusTransitionRow(stale, "Inactive", TODAY.minusDays(31), false),
+                new StatusTransitionRow(never, "Inactive", null, false),
+                new StatusTransitionRow(already, "Active", TODAY, false));
+        assertThat(statusOf(recent)).isEqualTo("Active");
+        assertThat(statusOf(stale)).isEqualTo("Inactive");
+        assertThat(statusOf(deleted)).isEqualTo("Inactive");
+    }
+
+    @Test
+    void deactivatingIgnoresTheCleaningDate() {
+        long never   = insertEquipment("Pump A", HVAC, "Active", null);
+        long already = insertEquipment("Pump B", HVAC, "Inactive", TODAY);
+
+        List<StatusTransitionRow> rows = bulkRepository.transitionStatus(
+                List.of(never, already), "Inactive", false, TODAY.minusDays(30));
+
+        assertThat(rows).extracting(StatusTransitionRow::updated).containsExactly(true, false);
+        assertThat(statusOf(never)).isEqualTo("Inactive");
+    }
+
+    // -------------------------------------------------------
+    // Maintenance summary check
+    // -------------------------------------------------------
+    @Test
+    void repairFixesOnlyDriftedSummaries() {
+        long clean   = insertEquipment("Pump A", HVAC, "Active", TODAY);
+        long drifted = insertEquipment("Pump B", HVAC, "Active", TODAY);
+        long none    = insertEquipment("Pump C", HVAC, "Inactive", null);
+        insertLog(clean, TODAY, "ann");
+        jdbc.update("""
+                UPDATE equipment
+                SET maintenance_count = 1, last_maintained_by = 'ann', last_maintenance_date = :day
+                WHERE id = :id
+                """, new MapSqlParameterSource("id", clean).addValue("day", TODAY));
+        // Logs written behind the application's back
+        insertLog(drifted, TODAY.minusDays(3), "bob");
+        insertLog(drifted, TODAY.minusDays(1), "cat");
+
+        assertThat(bulkRepository.repairMaintenanceSummary(List.of(clean, drifted, none)))
+                .containsExactly(drifted);
+        assertThat(summaryOf(drifted)).isEqualTo("2 cat " + TODAY.minusDays(1));
+        assertThat(summaryOf(clean)).isEqualTo("1 ann " + TODAY);
+        assertThat(bulkRepository.repairMaintenanceSummary(List.of(clean, drifted, none))).isEmpty();
+    }
+
+    @Test
+    void watermarkTrailsByOneRun() {
+        assertThat(bulkRepository.advanceSummaryWatermark(8)).isEmpty();
+
+        bulkRepository.initSummaryWatermark(5);
+        bulkRepository.initSummaryWatermark(7); // a second instance racing the first run
+
+        assertThat(bulkRepository.advanceSummaryWatermark(8)).contains(5L);
+        assertThat(bulkRepository.advanceSummaryWatermark(10)).contains(5L);
+        assertThat(bulkRepository.advanceSummaryWatermark(10)).contains(8L);
+        assertThat(bulkRepository.advanceSummaryWatermark(10)).contains(10L);
+    }
+
+    @Test
+    void findsEquipmentWithLogsInTheRange() {
+        long pump  = insertEquipment("Pump", HVAC, "Active", TODAY);
+        long panel = insertEquipment("Panel", ELECTRICAL, "Active", TODAY);
+        long older = insertLog(panel, TODAY, "ann");
+        insertLog(pump, TODAY, "ann");
+        insertLog(pump, TODAY, "bob");
+        long last  = insertLog(panel, TODAY, "cat");
+
+        assertThat(bulkRepository.findMaxLogId()).isEqualTo(last);
+        assertThat(bulkRepository.findEquipmentIdsWithLogsBetween(older, last)).containsExactly(pump, panel);
+        assertThat(bulkRepository.findEquipmentIdsWithLogsBetween(older, last - 1)).containsExactly(pump);
+        assertThat(bulkRepository.findEquipmentIdsWithLogsBetween(last, last)).isEmpty();
+    }
+
+    @Test
+    void lockLiveIdsSkipsTombstones() {
+        long live    = insertEquipment("Pump A", HVAC, "Active", TODAY);
+        long deleted = insertEquipment("Pump B", HVAC, "Active", TODAY);
+        tombstone(deleted);
+
+        assertThat(bulkRepository.lockLiveIds(List.of(deleted, live))).containsExactly(live);
+        assertThat(bulkRepository.lockLiveIdsAfter(0, 10)).containsExactly(live);
+    }
+
+    // -------------------------------------------------------
+    // Helpers
+    // -------------------------------------------------------
+    private String statusOf(long id) {
+        return jdbc.queryForObject("SELECT status FROM equipment WHERE id = :id",
+                new MapSqlParameterSource("id", id), String.class);
+    }
+
+    private String summaryOf(long id) {
+        return jdbc.queryForObject("""
+                SELECT maintenance_count || ' ' || last_maintained_by || ' ' || last_maintenance_date
+                FROM equipment WHERE id = :id
+                """, new MapSqlParameterSource("id", id), String.class);
+    }
+}
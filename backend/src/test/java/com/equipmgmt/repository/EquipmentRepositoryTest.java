@@ -0,0 +1,80 @@
+package com.equipmgmt.repository;
+
+import com.equipmgmt.dto.EquipmentFilter;
+import com.equipmgmt.entity.Equipment;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EquipmentRepositoryTest extends PostgresRepositoryTest {
+
+    @Autowired
+    EquipmentRepository equipmentRepository;
+
+    // -------------------------------------------------------
+    // Tombstones
+    // -------------------------------------------------------
+    @Test
+    void markDeletedTombstonesOnce() {
+        long id = insertEquipment("Chiller", HVAC, "Inactive", null);
+
+        assertThat(equipmentRepository.markDeleted(id)).isEqualTo(1);
+        assertThat(equipmentRepository.markDeleted(id)).isZero();
+        assertThat(equipmentRepository.countByDeletedAtIsNotNull()).isEqualTo(1);
+    }
+
+    @Test
+    void readsSkipTombstonedEquipment() {
+        long live    = insertEquipment("Chiller A", HVAC, "Active", LocalDate.now());
+        long deleted = insertEquipment("Chiller B", HVAC, "Active", LocalDate.now());
+        tombstone(deleted);
+
+        assertThat(equipmentRepository.findActiveById(deleted)).isEmpty();
+        assertThat(equipmentRepository.findUpdatedAtById(deleted)).isEmpty();
+        assertThat(equipmentRepository.findActiveByIdIn(List.of(live, deleted)))
+                .extracting(Equipment::getId).containsExactly(live);
+        assertThat(equipmentRepository.findAll(EquipmentSpecifications.matching(
+                EquipmentFilter.builder().search("chiller").build())))
+                .extracting(Equipment::getId).containsExactly(live);
+        try (Stream<EquipmentNameView> names = equipmentRepository.streamAllNames()) {
+            assertThat(names.map(EquipmentNameView::getId)).containsExactly(live);
+        }
+        try (Stream<CleaningDueView> due = equipmentRepository.streamAllCleaningDue()) {
+            assertThat(due.map(CleaningDueView::getId)).containsExactly(live);
+        }
+    }
+
+    @Test
+    void entitySaveKeepsTheTombstone() {
+        long id = insertEquipment("Chiller", HVAC, "Inactive", null);
+        Equipment loaded = equipmentRepository.findById(id).orElseThrow();
+        equipmentRepository.markDeleted(id);
+
+        // A write that loaded the row before the delete must not clear deleted_at
+        loaded.setName("Chiller (renamed)");
+        equipmentRepository.saveAndFlush(loaded);
+
+        assertThat(count("SELECT COUNT(*) FROM equipment WHERE id = :id AND deleted_at IS NOT NULL",
+                new MapSqlParameterSource("id", id))).isEqualTo(1);
+    }
+
+    @Test
+    void purgeOnlyRemovesTombstones() {
+        long live    = insertEquipment("Chiller A", HVAC, "Inactive", null);
+        long deleted = insertEquipment("Chiller B", HVAC, "Inactive", null);
+        tombstone(deleted);
+
+        assertThat(equipmentRepository.findTombstonedIds(10)).containsExactly(deleted);
+        assertThat(equipmentRepository.lockTombstoned(live)).isEmpty();
+        assertThat(equipmentRepository.lockTombstoned(deleted)).contains(deleted);
+        assertThat(equipmentRepository.purgeTombstoned(live)).isZero();
+        assertThat(equipmentRepository.purgeTombstoned(deleted)).isEqualTo(1);
+        assertThat(equipmentRepository.existsById(live)).isTrue();
+    }
+}
@@ -0,0 +1,123 @@
+package com.equipmgmt.repository;
+
+import com.equipmgmt.dto.MaintenanceRequestDTO;
+import com.equipmgmt.repository.MaintenanceBatchRepository.MaintainedEquipment;
+import com.equipmgmt.repository.MaintenanceRollupRepository.LogFact;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Import(MaintenanceBatchRepository.class)
+class MaintenanceBatchRepositoryTest extends PostgresRepositoryTest {
+
+    private static final LocalDate DAY = LocalDate.of(2026, 3, 2);
+
+    @Autowired
+    MaintenanceBatchRepository batchRepository;
+
+    // -------------------------------------------------------
+    // Group commit
+    // -------------------------------------------------------
+    @Test
+    void insertLogsWritesEachSubmissionUnderItsReservedId() {
+        long pump  = insertEquipment("Pump", HVAC, "Inactive", null);
+        long panel = insertEquipment("Panel", ELECTRICAL, "Inactive", null);
+        // Submitted out of equipment order; the batch sorts, the ids must still match
+        List<MaintenanceRequestDTO> dtos = List.of(request(panel, DAY, "bob"), request(pump, DAY.plusDays(1), "ann"));
+        List<LogFact> facts = List.of(new LogFact(panel, ELECTRICAL, DAY, "bob"),
+                                      new LogFact(pump, HVAC, DAY.plusDays(1), "ann"));
+        List<Long> ids = batchRepository.nextLogIds(2);
+
+        batchRepository.insertLogs(ids, dtos, facts, Instant.now());
+
+        assertThat(ids).doesNotHaveDuplicates();
+        assertThat(jdbc.queryForList("""
+                SELECT equipment_id || ' ' || type_id || ' ' || performed_by
+                FROM maintenance_logs WHERE id IN (:ids) ORDER BY id
+                """, new MapSqlParameterSource("ids", ids), String.class))
+                .containsExactly(panel + " " + ELECTRICAL + " bob", pump + " " + HVAC + " ann");
+    }
+
+    @Test
+    void markMaintainedAdvancesTheSummaryLikeSingleWrites() {
+        long pump  = insertEquipment("Pump", HVAC, "Inactive", null);
+        long panel = insertEquipment("Panel", ELECTRICAL, "Inactive", null);
+        jdbc.update("""
+                UPDATE equipment
+                SET maintenance_count = 1, last_maintained_by = 'ann', last_maintenance_date = :date
+                WHERE id = :id
+                """, new MapSqlParameterSource("id", pump).addValue("date", DAY.plusDays(5)));
+
+        Map<Long, MaintainedEquipment> maintained = new TreeMap<>();
+        // Two back-dated logs for the pump: only the count moves
+        maintained.put(pump, MaintainedEquipment.of(request(pump, DAY.plusDays(1), "bob"))
+                .then(MaintainedEquipment.of(request(pump, DAY.plusDays(3), "cat"))));
+        maintained.put(panel, MaintainedEquipment.of(request(panel, DAY, "dan")));
+
+        assertThat(batchRepository.markMaintained(maintained)).isEqualTo(2);
+        assertThat(summary(pump)).isEqualTo("Active " + DAY.plusDays(3) + " 3 ann " + DAY.plusDays(5));
+        assertThat(summary(panel)).isEqualTo("Active " + DAY + " 1 dan " + DAY);
+    }
+
+    // -------------------------------------------------------
+    // Purge chunks
+    // -------------------------------------------------------
+    @Test
+    void chunkDeleteLeavesLiveEquipmentAlone() {
+        long id = insertEquipment("Pump", HVAC, "Active", DAY);
+        insertLog(id, DAY, "ann");
+
+        assertThat(batchRepository.deleteChunkOfTombstoned(id, 10)).isEmpty();
+        assertThat(logCount(id)).isEqualTo(1);
+    }
+
+    @Test
+    void chunkDeleteReturnsWhatItRemoved() {
+        long id = insertEquipment("Pump", ELECTRICAL, "Active", DAY);
+        for (int i = 0; i < 5; i++) {
+            insertLog(id, DAY.plusDays(i), "ann");
+        }
+        tombstone(id);
+
+        List<LogFact> first = batchRepository.deleteChunkOfTombstoned(id, 3);
+        assertThat(first).hasSize(3)
+                .allSatisfy(fact -> {
+                    assertThat(fact.equipmentId()).isEqualTo(id);
+                    assertThat(fact.typeId()).isEqualTo(ELECTRICAL);
+                    assertThat(fact.performedBy()).isEqualTo("ann");
+                });
+        assertThat(batchRepository.deleteChunkOfTombstoned(id, 3)).hasSize(2);
+        assertThat(batchRepository.deleteChunkOfTombstoned(id, 3)).isEmpty();
+        assertThat(logCount(id)).isZero();
+    }
+
+    private static MaintenanceRequestDTO request(long equipmentId, LocalDate date, String performedBy) {
+        MaintenanceRequestDTO dto = new MaintenanceRequestDTO();
+        dto.setEquipmentId(equipmentId);
+        dto.setMaintenanceDate(date);
+        dto.setPerformedBy(performedBy);
+        return dto;
+    }
+
+    private String summary(long equipmentId) {
+        return jdbc.queryForObject("""
+                SELECT status || ' ' || last_cleaned_date || ' ' || maintenance_count || ' '
+                       || last_maintained_by || ' ' || last_maintenance_date
+                FROM equipment WHERE id = :id
+                """, new MapSqlParameterSource("id", equipmentId), String.class);
+    }
+
+    private long logCount(long equipmentId) {
+        return count("SELECT COUNT(*) FROM maintenance_logs WHERE equipment_id = :id",
+                new MapSqlParameterSource("id", equipmentId));
+    }
+}
@@ -0,0 +1,138 @@
+package com.equipmgmt.repository;
+
+import com.equipmgmt.dto.MaintenanceIntervalDTO;
+import com.equipmgmt.repository.MaintenanceRollupRepository.LogFact;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Import(MaintenanceRollupRepository.class)
+class MaintenanceRollupRepositoryTest extends PostgresRepositoryTest {
+
+    private static final LocalDate DAY = LocalDate.of(2026, 3, 2);
+
+    @Autowired
+    MaintenanceRollupRepository rollupRepository;
+
+    // -------------------------------------------------------
+    // Incremental maintenance
+    // -------------------------------------------------------
+    @Test
+    void incrementAddsToExistingBuckets() {
+        long pump  = insertEquipment("Pump", HVAC, "Active", DAY);
+        long panel = insertEquipment("Panel", ELECTRICAL, "Active", DAY);
+
+        rollupRepository.increment(List.of(
+                new LogFact(pump, HVAC, DAY, "ann"),
+                new LogFact(pump, HVAC, DAY.plusDays(4), "ann")));
+        rollupRepository.increment(List.of(
+                new LogFact(pump, HVAC, DAY, "bob"),
+                new LogFact(panel, ELECTRICAL, DAY, "ann")));
+
+        assertThat(dailyByType()).containsExactly(
+                DAY + " " + HVAC + " 2",
+                DAY + " " + ELECTRICAL + " 1",
+                DAY.plusDays(4) + " " + HVAC + " 1");
+        assertThat(dailyByTechnician()).containsExactly(
+                DAY + " ann 2",
+                DAY + " bob 1",
+                DAY.plusDays(4) + " ann 1");
+
+        MaintenanceIntervalDTO stats = rollupRepository.findEquipmentStats(pump).orElseThrow();
+        assertThat(stats.getLogCount()).isEqualTo(3);
+        assertThat(stats.getFirstDate()).isEqualTo(DAY);
+        assertThat(stats.getLastDate()).isEqualTo(DAY.plusDays(4));
+        assertThat(stats.getMeanDaysBetween()).isEqualTo(2.0);
+    }
+
+    @Test
+    void retractDropsBucketsLeftEmpty() {
+        long pump = insertEquipment("Pump", HVAC, "Active", DAY);
+        LogFact ann = new LogFact(pump, HVAC, DAY, "ann");
+        LogFact bob = new LogFact(pump, HVAC, DAY, "bob");
+        rollupRepository.increment(List.of(ann, bob));
+
+        rollupRepository.retract(List.of(bob));
+
+        assertThat(dailyByType()).containsExactly(DAY + " " + HVAC + " 1");
+        assertThat(dailyByTechnician()).containsExactly(DAY + " ann 1");
+
+        rollupRepository.retract(List.of(ann));
+
+        assertThat(dailyByType()).isEmpty();
+        assertThat(dailyByTechnician()).isEmpty();
+        // Per-equipment stats go with the equipment, not with its logs
+        assertThat(rollupRepository.findEquipmentStats(pump)).isPresent();
+    }
+
+    // -------------------------------------------------------
+    // Backfill
+    // -------------------------------------------------------
+    @Test
+    void rebuildDaysCountsEachLogUnderItsStoredType() {
+        long pump    = insertEquipment("Pump", HVAC, "Active", DAY);
+        long deleted = insertEquipment("Boiler", HVAC, "Active", DAY);
+        insertLog(pump, DAY, "ann");
+        insertLog(deleted, DAY, "bob");
+        insertLog(pump, DAY.plusDays(10), "ann");
+        // Retyped after the logs were written; they stay under HVAC
+        jdbc.update("UPDATE equipment SET type_id = :typeId WHERE id = :id",
+                new MapSqlParameterSource("typeId", ELECTRICAL).addValue("id", pump));
+        tombstone(deleted);
+        // A stale bucket inside the range is replaced, one outside it is kept
+        rollupRepository.increment(List.of(
+                new LogFact(pump, ELECTRICAL, DAY, "zed"),
+                new LogFact(pump, ELECTRICAL, DAY.plusDays(10), "zed")));
+
+        rollupRepository.rebuildDays(DAY, DAY.plusDays(1));
+
+        assertThat(dailyByType()).containsExactly(
+                DAY + " " + HVAC + " 2",
+                DAY.plusDays(10) + " " + ELECTRICAL + " 1");
+        assertThat(dailyByTechnician()).containsExactly(
+                DAY + " ann 1",
+                DAY + " bob 1",
+                DAY.plusDays(10) + " zed 1");
+    }
+
+    @Test
+    void rebuildEquipmentSkipsTombstonedEquipment() {
+        long pump    = insertEquipment("Pump", HVAC, "Active", DAY);
+        long deleted = insertEquipment("Boiler", HVAC, "Active", DAY);
+        insertLog(pump, DAY, "ann");
+        insertLog(pump, DAY.plusDays(6), "ann");
+        insertLog(deleted, DAY, "bob");
+        rollupRepository.increment(List.of(new LogFact(deleted, HVAC, DAY, "bob")));
+        tombstone(deleted);
+
+        rollupRepository.rebuildEquipment(Math.min(pump, deleted), Math.max(pump, deleted));
+
+        MaintenanceIntervalDTO stats = rollupRepository.findEquipmentStats(pump).orElseThrow();
+        assertThat(stats.getLogCount()).isEqualTo(2);
+        assertThat(stats.getMeanDaysBetween()).isEqualTo(6.0);
+        assertThat(rollupRepository.findEquipmentStats(deleted)).isEmpty();
+    }
+
+    // -------------------------------------------------------
+    // Helpers
+    // -------------------------------------------------------
+    private List<String> dailyByType() {
+        return jdbc.queryForList("""
+                SELECT day || ' ' || type_id || ' ' || log_count
+                FROM maintenance_daily_by_type ORDER BY day, type_id
+                """, new MapSqlParameterSource(), String.class);
+    }
+
+    private List<String> dailyByTechnician() {
+        return jdbc.queryForList("""
+                SELECT day || ' ' || performed_by || ' ' || log_count
+                FROM maintenance_daily_by_technician ORDER BY day, performed_by
+                """, new MapSqlParameterSource(), String.class);
+    }
+}
@@ -0,0 +1,85 @@
+package com.equipmgmt.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.MountableFile;
+
+import java.time.LocalDate;
+
+/**
+ * Base for repository tests: PostgreSQL 16 in a container, initialized with
+ * db/schema.sql, so the native SQL runs against the real schema. Skipped
+ * when Docker is not available. Each test runs in a transaction that is
+ * rolled back afterwards.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+abstract class PostgresRepositoryTest {
+
+    // Seeded by schema.sql
+    static final long HVAC       = 1;
+    static final long ELECTRICAL = 2;
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine")
+            .withCopyFileToContainer(MountableFile.forHostPath("../db/schema.sql"),
+                    "/docker-entrypoint-initdb.d/schema.sql");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url",      POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+        registry.add("spring.jpa.show-sql",        () -> "false");
+    }
+
+    @Autowired
+    NamedParameterJdbcTemplate jdbc;
+
+    // -------------------------------------------------------
+    // Fixtures
+    // -------------------------------------------------------
+    long insertEquipment(String name, long typeId, String status, LocalDate lastCleanedDate) {
+        return jdbc.queryForObject("""
+                INSERT INTO equipment (name, type_id, status, last_cleaned_date)
+                VALUES (:name, :typeId, :status, :lastCleanedDate)
+                RETURNING id
+                """,
+                new MapSqlParameterSource("name", name)
+                        .addValue("typeId", typeId)
+                        .addValue("status", status)
+                        .addValue("lastCleanedDate", lastCleanedDate),
+                Long.class);
+    }
+
+    /** A log written behind the application's back: no summary or rollup update. */
+    long insertLog(long equipmentId, LocalDate maintenanceDate, String performedBy) {
+        return jdbc.queryForObject("""
+                INSERT INTO maintenance_logs (equipment_id, maintenance_date, performed_by, type_id)
+                SELECT id, :maintenanceDate, :performedBy, type_id FROM equipment WHERE id = :equipmentId
+                RETURNING id
+                """,
+                new MapSqlParameterSource("equipmentId", equipmentId)
+                        .addValue("maintenanceDate", maintenanceDate)
+                        .addValue("performedBy", performedBy),
+                Long.class);
+    }
+
+    void tombstone(long equipmentId) {
+        jdbc.update("UPDATE equipment SET deleted_at = NOW() WHERE id = :id",
+                new MapSqlParameterSource("id", equipmentId));
+    }
+
+    long count(String sql, MapSqlParameterSource params) {
+        return jdbc.queryForObject(sql, params, Long.class);
+    }
+}
@@ -0,0 +1,80 @@
+#!/usr/bin/env bash
+# ============================================================
+# Cold-start benchmark: regular jar vs. fast-startup build
+#
+# Starts the backend RUNS times in each mode and reports the median
+# time from launch to the first 200 on PROBE_PATH (a real request that
+# goes through JPA), and the process RSS at that moment.
+#
+#   baseline  java -jar target/equipment-management-1.0.0.jar
+#   fast      AOT + AppCDS archive + fast-startup profile (lazy init)
+#
+# Needs the database up and, in backend/:
+#   mvn -Pfast-startup clean package -DskipTests
+#   ./cds-archive.sh target/equipment-management-1.0.0.jar target/fast
+#
+# Usage:
+#   RUNS=5 ./bench/startup.sh
+# ============================================================
+set -euo pipefail
+
+BACKEND=${BACKEND:-$(cd "$(dirname "$0")/../backend" && pwd)}
+BASE_URL=${BASE_URL:-http://localhost:8080}
+PROBE_PATH=${PROBE_PATH:-/api/equipment-types}
+RUNS=${RUNS:-5}
+TIMEOUT_S=${TIMEOUT_S:-120}
+
+JAR="$BACKEND/target/equipment-management-1.0.0.jar"
+FAST="$BACKEND/target/fast"
+for f in "$JAR" "$FAST/app.jsa" "$FAST/java.args"; do
+    [[ -e "$f" ]] || { echo "missing $f — see the header of this script" >&2; exit 1; }
+done
+
+log=$(mktemp)
+trap 'rm -f "$log"' EXIT
+
+# Prints "<ms> <rss-kb>" for one cold start of the given command
+one_run() {
+    local start pid
+    start=$(date +%s%N)
+    "$@" > "$log" 2>&1 &
+    pid=$!
+    until curl -sf -o /dev/null "$BASE_URL$PROBE_PATH"; do
+        if ! kill -0 "$pid" 2>/dev/null; then
+            echo "backend exited before serving $PROBE_PATH:" >&2
+            tail -20 "$log" >&2
+            exit 1
+        fi
+        if (( ($(date +%s%N) - start) / 1000000000 > TIMEOUT_S )); then
+            kill "$pid"; echo "no 200 from $PROBE_PATH within ${TIMEOUT_S}s" >&2; exit 1
+        fi
+        sleep 0.02
+    done
+    local ms=$(( ($(date +%s%N) - start) / 1000000 ))
+    local rss
+    rss=$(awk '/^VmRSS:/ { print $2 }' "/proc/$pid/status")
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+    echo "$ms $rss"
+}
+
+median() { sort -n | awk '{ v[NR] = $1 } END { print v[int((NR + 1) / 2)] }'; }
+
+bench() {
+    local label=$1; shift
+    local results=()
+    for _ in $(seq "$RUNS"); do
+        results+=("$(one_run "$@")")
+    done
+    local ms rss
+    ms=$(printf '%s\n' "${results[@]}" | awk '{ print $1 }' | median)
+    rss=$(printf '%s\n' "${results[@]}" | awk '{ print $2 }' | median)
+    printf '%-9s first 200 after %6d ms   RSS %6d MB   (median of %d)\n' \
+           "$label" "$ms" "$((rss / 1024))" "$RUNS"
+}
+
+bench baseline java -jar "$JAR"
+bench fast     java -XX:SharedArchiveFile="$FAST/app.jsa" \
+                    -Dspring.aot.enabled=true \
+                    -Dspring.profiles.active=fast-startup \
+                    @"$FAST/java.args"
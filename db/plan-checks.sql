@@ -0,0 +1,112 @@
+-- ============================================================
+-- Plan regression checks for the equipment list queries
+--
+-- Run against a database created from schema.sql:
+--   psql -v ON_ERROR_STOP=1 -U admin -d equipment_db -f db/plan-checks.sql
+--
+-- Each statement mirrors the SQL Hibernate emits for one filter
+-- combination of GET /api/equipment. It is prepared and explained with
+-- a forced generic plan (what PostgreSQL caches for the JDBC driver's
+-- server-side prepared statements) and the check fails unless the
+-- expected index appears in the plan. Sequential scans are disabled so
+-- the result does not depend on how much data the table holds.
+-- ============================================================
+
+SET enable_seqscan     = off;
+SET plan_cache_mode    = force_generic_plan;
+
+CREATE OR REPLACE FUNCTION pg_temp.assert_uses_index(stmt TEXT, expected_index TEXT)
+RETURNS VOID AS $$
+DECLARE
+    line TEXT;
+    plan TEXT := '';
+BEGIN
+    FOR line IN EXECUTE 'EXPLAIN ' || stmt LOOP
+        plan := plan || line || E'\n';
+    END LOOP;
+    -- \M (end of word) keeps idx_equipment_status from matching idx_equipment_status_cleaned
+    IF plan !~ (expected_index || '\M') THEN
+        RAISE EXCEPTION 'Expected % for [%], got plan:%', expected_index, stmt, E'\n' || plan;
+    END IF;
+    RAISE NOTICE 'OK  % — %', expected_index, stmt;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Default list: no filters, newest first
+PREPARE q_default(INT, INT) AS
+    SELECT e.id FROM equipment e
+    WHERE e.deleted_at IS NULL
+    ORDER BY e.created_at DESC, e.id DESC
+    OFFSET $1 ROWS FETCH FIRST $2 ROWS ONLY;
+SELECT pg_temp.assert_uses_index('EXECUTE q_default(0, 10)', 'idx_equipment_created');
+
+-- Single status, newest first
+PREPARE q_status(TEXT, INT, INT) AS
+    SELECT e.id FROM equipment e
+    WHERE e.deleted_at IS NULL AND e.status = $1
+    ORDER BY e.created_at DESC, e.id DESC
+    OFFSET $2 ROWS FETCH FIRST $3 ROWS ONLY;
+SELECT pg_temp.assert_uses_index('EXECUTE q_status(''Active'', 0, 10)', 'idx_equipment_status');
+
+-- Single type, newest first
+PREPARE q_type(BIGINT, INT, INT) AS
+    SELECT e.id FROM equipment e
+    WHERE e.deleted_at IS NULL AND e.type_id = $1
+    ORDER BY e.created_at DESC, e.id DESC
+    OFFSET $2 ROWS FETCH FIRST $3 ROWS ONLY;
+SELECT pg_temp.assert_uses_index('EXECUTE q_type(1, 0, 10)', 'idx_equipment_type_id');
+
+-- Several statuses + last_cleaned_date range
+PREPARE q_status_cleaned(TEXT, TEXT, DATE, DATE) AS
+    SELECT e.id FROM equipment e
+    WHERE e.deleted_at IS NULL
+      AND e.status IN ($1, $2)
+      AND e.last_cleaned_date >= $3
+      AND e.last_cleaned_date <= $4;
+SELECT pg_temp.assert_uses_index(
+    'EXECUTE q_status_cleaned(''Active'', ''Inactive'', DATE ''2024-01-01'', DATE ''2024-12-31'')',
+    'idx_equipment_status_cleaned');
+
+-- last_cleaned_date range only
+PREPARE q_cleaned(DATE, DATE) AS
+    SELECT e.id FROM equipment e
+    WHERE e.deleted_at IS NULL
+      AND e.last_cleaned_date >= $1
+      AND e.last_cleaned_date <= $2;
+SELECT pg_temp.assert_uses_index(
+    'EXECUTE q_cleaned(DATE ''2024-01-01'', DATE ''2024-12-31'')',
+    'idx_equipment_cleaned');
+
+-- Name search ('%term%')
+PREPARE q_search(TEXT) AS
+    SELECT e.id FROM equipment e
+    WHERE e.deleted_at IS NULL
+      AND LOWER(e.name) LIKE $1 ESCAPE '\';
+SELECT pg_temp.assert_uses_index('EXECUTE q_search(''%pump%'')', 'idx_equipment_name_trgm');
+
+-- Sorted by maintenance count / last maintenance date (summary columns)
+PREPARE q_maint_count(INT, INT) AS
+    SELECT e.id FROM equipment e
+    WHERE e.deleted_at IS NULL
+    ORDER BY e.maintenance_count DESC, e.id DESC
+    OFFSET $1 ROWS FETCH FIRST $2 ROWS ONLY;
+SELECT pg_temp.assert_uses_index('EXECUTE q_maint_count(0, 10)', 'idx_equipment_maint_count');
+
+PREPARE q_last_maint(INT, INT) AS
+    SELECT e.id FROM equipment e
+    WHERE e.deleted_at IS NULL
+    ORDER BY e.last_maintenance_date DESC NULLS LAST, e.id DESC
+    OFFSET $1 ROWS FETCH FIRST $2 ROWS ONLY;
+SELECT pg_temp.assert_uses_index('EXECUTE q_last_maint(0, 10)', 'idx_equipment_last_maint');
+
+-- Ascending is the same index read backwards
+PREPARE q_last_maint_asc(INT, INT) AS
+    SELECT e.id FROM equipment e
+    WHERE e.deleted_at IS NULL
+    ORDER BY e.last_maintenance_date ASC NULLS FIRST, e.id ASC
+    OFFSET $1 ROWS FETCH FIRST $2 ROWS ONLY;
+SELECT pg_temp.assert_uses_index('EXECUTE q_last_maint_asc(0, 10)', 'idx_equipment_last_maint');
+
+DEALLOCATE ALL;
+RESET enable_seqscan;
+RESET plan_cache_mode;
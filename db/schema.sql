@@ -2,10 +2,19 @@
 -- Equipment Management System — Database Schema
 -- ============================================================
 
+-- Trigram support for the '%term%' name search
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
 -- Drop tables in reverse dependency order (for re-runs)
-DROP TABLE IF EXISTS maintenance_logs CASCADE;
-DROP TABLE IF EXISTS equipment       CASCADE;
-DROP TABLE IF EXISTS equipment_types CASCADE;
+DROP TABLE IF EXISTS maintenance_summary_watermark   CASCADE;
+DROP TABLE IF EXISTS cleaning_reminder_watermark     CASCADE;
+DROP TABLE IF EXISTS cleaning_reminders              CASCADE;
+DROP TABLE IF EXISTS equipment_maintenance_stats     CASCADE;
+DROP TABLE IF EXISTS maintenance_daily_by_technician CASCADE;
+DROP TABLE IF EXISTS maintenance_daily_by_type       CASCADE;
+DROP TABLE IF EXISTS maintenance_logs                CASCADE;
+DROP TABLE IF EXISTS equipment                       CASCADE;
+DROP TABLE IF EXISTS equipment_types                 CASCADE;
 
 -- ------------------------------------------------------------
 -- 1. Equipment Types  (dynamic — no hardcoded values)
@@ -29,14 +38,25 @@ CREATE TABLE equipment (
                           CHECK (status IN ('Active', 'Inactive', 'Under Maintenance')),
     last_cleaned_date DATE,
     created_at        TIMESTAMP    NOT NULL DEFAULT NOW(),
-    updated_at        TIMESTAMP    NOT NULL DEFAULT NOW()
+    updated_at        TIMESTAMP    NOT NULL DEFAULT NOW(),
+    -- Maintenance summary, kept by the same UPDATE that logs maintenance
+    -- (see EquipmentService) and repaired by EquipmentSummaryReconciler
+    maintenance_count     BIGINT       NOT NULL DEFAULT 0,
+    last_maintained_by    VARCHAR(255),
+    last_maintenance_date DATE,
+    -- Tombstone: set on DELETE, row is hidden from reads and purged
+    -- (logs first, then the row itself) by the background purger
+    deleted_at        TIMESTAMP
 );
 
--- Auto-update updated_at on every row change
+-- Auto-update updated_at on every row change. clock_timestamp(), not NOW():
+-- the trigger fires with the row locked, so successive writes to one row get
+-- increasing values whenever their transactions started; the in-memory
+-- indexes rely on that to drop stale rows.
 CREATE OR REPLACE FUNCTION update_updated_at_column()
 RETURNS TRIGGER AS $$
 BEGIN
-    NEW.updated_at = NOW();
+    NEW.updated_at = clock_timestamp();
     RETURN NEW;
 END;
 $$ LANGUAGE plpgsql;
@@ -55,16 +75,103 @@ CREATE TABLE maintenance_logs (
     maintenance_date DATE         NOT NULL,
     notes            TEXT,
     performed_by     VARCHAR(255) NOT NULL,
+    -- The equipment's type when the log was written; the rollups count
+    -- the log under this type even if the equipment changes type later
+    type_id          BIGINT       NOT NULL
+                         REFERENCES equipment_types(id) ON DELETE RESTRICT,
     created_at       TIMESTAMP    NOT NULL DEFAULT NOW()
 );
 
+-- ------------------------------------------------------------
+-- 4. Maintenance rollups
+-- Maintained incrementally by MaintenanceService on every log,
+-- rebuilt from maintenance_logs by MaintenanceRollupBackfill.
+-- Counts are by maintenance_date and the log's own type_id
+-- (the equipment's type at the time of the log). The daily
+-- tables count every row in maintenance_logs: the purger takes
+-- a deleted equipment's logs out chunk by chunk as it removes
+-- them (EquipmentPurgeService). Per-equipment stats cover live
+-- equipment only.
+-- ------------------------------------------------------------
+CREATE TABLE maintenance_daily_by_type (
+    day       DATE   NOT NULL,
+    type_id   BIGINT NOT NULL REFERENCES equipment_types(id) ON DELETE CASCADE,
+    log_count BIGINT NOT NULL,
+    PRIMARY KEY (day, type_id)
+);
+
+CREATE TABLE maintenance_daily_by_technician (
+    day          DATE         NOT NULL,
+    performed_by VARCHAR(255) NOT NULL,
+    log_count    BIGINT       NOT NULL,
+    PRIMARY KEY (day, performed_by)
+);
+
+-- Mean days between maintenance = (last_date - first_date) / (log_count - 1)
+CREATE TABLE equipment_maintenance_stats (
+    equipment_id BIGINT PRIMARY KEY REFERENCES equipment(id) ON DELETE CASCADE,
+    log_count    BIGINT NOT NULL,
+    first_date   DATE   NOT NULL,
+    last_date    DATE   NOT NULL
+);
+
+-- ------------------------------------------------------------
+-- 5. Cleaning reminders
+-- Shared by all instances so each equipment / due date is
+-- announced once (CleaningScheduleService). The watermark is
+-- the due date the reminder horizon has been scanned through.
+-- ------------------------------------------------------------
+CREATE TABLE cleaning_reminders (
+    equipment_id BIGINT    PRIMARY KEY REFERENCES equipment(id) ON DELETE CASCADE,
+    due_date     DATE      NOT NULL,
+    sent_at      TIMESTAMP NOT NULL DEFAULT NOW()
+);
+
+CREATE TABLE cleaning_reminder_watermark (
+    singleton       BOOLEAN PRIMARY KEY DEFAULT TRUE CHECK (singleton),
+    scanned_through DATE    NOT NULL
+);
+
+-- ------------------------------------------------------------
+-- 6. Maintenance summary check
+-- The maintenance_logs ids EquipmentSummaryReconciler has
+-- recounted through. checked_through trails seen_through by one
+-- run, so each range of new logs is checked twice. No row until
+-- the first run, which checks all equipment.
+-- ------------------------------------------------------------
+CREATE TABLE maintenance_summary_watermark (
+    singleton       BOOLEAN PRIMARY KEY DEFAULT TRUE CHECK (singleton),
+    checked_through BIGINT  NOT NULL,
+    seen_through    BIGINT  NOT NULL
+);
+
 -- ------------------------------------------------------------
 -- Indexes for common query patterns
 -- ------------------------------------------------------------
-CREATE INDEX idx_equipment_type_id       ON equipment(type_id);
-CREATE INDEX idx_equipment_status        ON equipment(status);
+-- Equipment list: one composite index per common filter + sort combination.
+-- Partial on deleted_at IS NULL because every list query carries that predicate.
+-- The trailing id matches the tie-breaker sort appended by EquipmentService.
+CREATE INDEX idx_equipment_created       ON equipment(created_at DESC, id DESC)
+    WHERE deleted_at IS NULL;
+CREATE INDEX idx_equipment_status        ON equipment(status, created_at DESC, id DESC)
+    WHERE deleted_at IS NULL;
+-- Not partial: also serves the ON DELETE RESTRICT check from equipment_types
+CREATE INDEX idx_equipment_type_id       ON equipment(type_id, created_at DESC, id DESC);
+CREATE INDEX idx_equipment_status_cleaned ON equipment(status, last_cleaned_date)
+    WHERE deleted_at IS NULL;
+CREATE INDEX idx_equipment_cleaned       ON equipment(last_cleaned_date)
+    WHERE deleted_at IS NULL;
+CREATE INDEX idx_equipment_name_trgm     ON equipment USING GIN (LOWER(name) gin_trgm_ops)
+    WHERE deleted_at IS NULL;
+CREATE INDEX idx_equipment_maint_count   ON equipment(maintenance_count DESC, id DESC)
+    WHERE deleted_at IS NULL;
+-- NULLS LAST: never-maintained equipment ends a descending sort (and starts
+-- an ascending one, read backwards)
+CREATE INDEX idx_equipment_last_maint    ON equipment(last_maintenance_date DESC NULLS LAST, id DESC)
+    WHERE deleted_at IS NULL;
 CREATE INDEX idx_maintenance_equipment   ON maintenance_logs(equipment_id);
 CREATE INDEX idx_maintenance_date        ON maintenance_logs(maintenance_date);
+CREATE INDEX idx_equipment_tombstoned    ON equipment(deleted_at) WHERE deleted_at IS NOT NULL;
 
 -- ------------------------------------------------------------
 -- Seed Data — Equipment Types
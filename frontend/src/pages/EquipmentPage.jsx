@@ -94,12 +94,12 @@ export default function EquipmentPage() {
   const totalElements= data?.totalElements|| 0
 
   // ── Sort toggle ──────────────────────────────────────────
-  const handleSort = useCallback((field) => {
+  const handleSort = useCallback((field, firstDir = 'asc') => {
     if (sortBy === field) {
       setSortDir(d => d === 'asc' ? 'desc' : 'asc')
     } else {
       setSortBy(field)
-      setSortDir('asc')
+      setSortDir(firstDir)
     }
     setPage(0)
   }, [sortBy])
@@ -190,10 +190,11 @@ export default function EquipmentPage() {
                     { label: 'Type',       field: 'typeName'       },
                     { label: 'Status',     field: 'status'         },
                     { label: 'Last Cleaned',field:'lastCleanedDate'},
+                    { label: 'Last Maintained', field: 'lastMaintenanceDate', firstDir: 'desc' },
                   ].map(col => (
                     <th
                       key={col.field}
-                      onClick={() => handleSort(col.field)}
+                      onClick={() => handleSort(col.field, col.firstDir)}
                       className="text-left px-5 py-3.5 text-xs font-semibold text-text-secondary uppercase tracking-widest cursor-pointer select-none hover:text-text-primary transition-colors"
                     >
                       <span className="flex items-center gap-1.5">
@@ -210,14 +211,14 @@ export default function EquipmentPage() {
               <tbody>
                 {isLoading ? (
                   <tr>
-                    <td colSpan={5} className="text-center py-20">
+                    <td colSpan={6} className="text-center py-20">
                       <Loader2 className="h-8 w-8 animate-spin text-accent mx-auto mb-3" />
                       <p className="text-sm text-text-secondary">Loading equipment…</p>
                     </td>
                   </tr>
                 ) : isError ? (
                   <tr>
-                    <td colSpan={5} className="text-center py-20">
+                    <td colSpan={6} className="text-center py-20">
                       <ServerCrash className="h-10 w-10 text-danger mx-auto mb-3" />
                       <p className="text-sm text-text-secondary">Could not connect to the server.</p>
                       <p className="text-xs text-text-muted mt-1">Make sure the backend is running on port 8080.</p>
@@ -225,7 +226,7 @@ export default function EquipmentPage() {
                   </tr>
                 ) : equipment.length === 0 ? (
                   <tr>
-                    <td colSpan={5} className="text-center py-20">
+                    <td colSpan={6} className="text-center py-20">
                       <Settings2 className="h-10 w-10 text-text-muted mx-auto mb-3" />
                       <p className="text-sm text-text-secondary">No equipment found.</p>
                       <button
@@ -263,6 +264,20 @@ export default function EquipmentPage() {
                           <span className="text-xs text-text-muted italic">—</span>
                         )}
                       </td>
+                      <td className="px-5 py-4">
+                        {eq.lastMaintenanceDate ? (
+                          <div className="flex flex-col">
+                            <span className="text-sm text-text-secondary font-mono">
+                              {eq.lastMaintenanceDate}
+                            </span>
+                            <span className="text-xs text-text-muted">
+                              {eq.lastMaintainedBy || 'Unknown'} · {eq.maintenanceCount} total
+                            </span>
+                          </div>
+                        ) : (
+                          <span className="text-xs text-text-muted italic">—</span>
+                        )}
+                      </td>
                       <td className="px-5 py-4">
                         <div className="flex items-center justify-end gap-1.5 opacity-60 group-hover:opacity-100 transition-opacity">
                           <Button